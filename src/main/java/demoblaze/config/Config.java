@@ -1,5 +1,7 @@
 package demoblaze.config;
 
+import java.util.List;
+
 /**
  * Configuration class for managing application-level constants. Implements Singleton pattern for
  * single instance across the application.
@@ -11,15 +13,76 @@ public class Config {
   public static final String BROWSER = System.getProperty("browser", "chrome").toLowerCase();
   public static final boolean HEADLESS =
       Boolean.parseBoolean(System.getProperty("headless", "false"));
+  // Browser matrix: every suite <test> runs once per listed browser, in parallel
+  public static final List<String> BROWSERS =
+      List.of(System.getProperty("browsers", BROWSER).toLowerCase().trim().split("\\s*,\\s*"));
+
+  // Launch Profile Configuration (named argument/preference sets, see LaunchProfileBenchmark)
+  public static final String LAUNCH_PROFILE = System.getProperty("browser.profile", "");
+  public static final String LAUNCH_PROFILE_DIR =
+      System.getProperty("browser.profileDir", "launch-profiles");
+
+  // Driver Lifecycle Configuration ("restart" quits the driver per class, "recycle" scrubs and
+  // reuses it, "contexts" gives each class an isolated browser context in a shared browser)
+  public static final String DRIVER_LIFECYCLE =
+      System.getProperty("driver.lifecycle", "restart").toLowerCase();
+  public static final int DRIVER_MAX_REUSE = Integer.getInteger("driver.maxReuse", 5);
+  public static final int CONTEXTS_PER_BROWSER = Integer.getInteger("contexts.perBrowser", 8);
+  // Driver and browser processes of running JVMs, used to kill those left behind by dead ones
+  public static final String DRIVER_REGISTRY_DIR =
+      System.getProperty("drivers.registry", ".driver-registry");
+
+  // Asset Cache Configuration (local proxy serving static assets from a cache shared by runs)
+  public static final boolean ASSET_CACHE = Boolean.getBoolean("assets.cache");
+  public static final String ASSET_CACHE_DIR =
+      System.getProperty("assets.cacheDir", ".asset-cache");
+  public static final long ASSET_CACHE_TTL_HOURS = Long.getLong("assets.cacheTtlHours", 168);
+
+  // Alert Configuration (BiDi recording; policy is "accept", "dismiss" or "none")
+  public static final boolean ALERT_BIDI = Boolean.getBoolean("alerts.bidi");
+  public static final String ALERT_POLICY =
+      System.getProperty("alerts.policy", "accept").toLowerCase();
 
   // URL Configuration
   public static final String BASE_URL = "https://www.demoblaze.com/";
+  public static final String API_URL = "https://api.demoblaze.com/";
+
+  // Catalog Configuration (open products by detail URL from the catalog index)
+  public static final boolean CATALOG_DEEP_LINKS =
+      Boolean.parseBoolean(System.getProperty("catalog.deepLinks", "true"));
+
+  // Session Snapshot Configuration (empty directory keeps snapshots in memory only)
+  public static final String SESSION_SNAPSHOT_DIR =
+      System.getProperty("sessions.snapshotDir", "target/sessions");
+
+  // Scenario Configuration (sessions independent steps may run on at once; attempts per run)
+  public static final int SCENARIO_SESSIONS = Integer.getInteger("scenario.sessions", 1);
+  public static final int SCENARIO_ATTEMPTS = Integer.getInteger("scenario.attempts", 2);
+  public static final boolean SCENARIO_RESUME =
+      Boolean.parseBoolean(System.getProperty("scenario.resume", "true"));
+
+  // Account Pool Configuration
+  public static final int ACCOUNT_POOL_SIZE = Integer.getInteger("accounts.pool", 4);
+  public static final int ACCOUNT_LEASE_TIMEOUT = 60;
 
   // Wait Configuration (in seconds)
   public static final int IMPLICIT_WAIT = 10;
   public static final int EXPLICIT_WAIT = 15;
   public static final int PAGE_LOAD_TIMEOUT = 20;
 
+  // Interaction Configuration (batched fills/clicks/reads run in one script call when enabled)
+  public static final boolean BATCH_INTERACTIONS =
+      Boolean.parseBoolean(System.getProperty("interactions.batch", "true"));
+
+  // Wait Mode Configuration ("poll" checks over WebDriver, "observe" uses an in-page observer)
+  public static final String WAIT_MODE = System.getProperty("waits.mode", "poll").toLowerCase();
+
+  // Adaptive Wait Configuration ("off", "learn" records latencies, "on" also applies them)
+  public static final String ADAPTIVE_WAITS =
+      System.getProperty("waits.adaptive", "off").toLowerCase();
+  public static final String WAIT_HISTORY_FILE =
+      System.getProperty("waits.history", ".wait-history/wait-latencies.json");
+
   // Test Data
   public static final String TEST_USER_FIRSTNAME = "John";
   public static final String TEST_USER_LASTNAME = "Doe";
@@ -36,9 +99,42 @@ public class Config {
   public static final String PRODUCT_MACBOOK = "MacBook Air";
   public static final String PRODUCT_APPLE_MONITOR = "Apple Monitor 24";
 
+  // Test Result Configuration (streamed JSONL, indexed into junit.xml and index.html)
+  public static final String RESULTS_DIR = "target/results";
+
+  // Failure Artifact Configuration
+  public static final int ARTIFACT_WRITER_THREADS = Integer.getInteger("artifacts.threads", 2);
+  public static final int ARTIFACT_QUEUE_CAPACITY = Integer.getInteger("artifacts.queue", 16);
+  public static final int ARTIFACT_DRAIN_TIMEOUT = 30;
+
+  // HAR Capture Configuration (Chromium browsers only)
+  public static final boolean HAR_ENABLED = Boolean.getBoolean("har");
+  public static final String HAR_URL_FILTER = System.getProperty("har.include", "");
+  public static final int HAR_MAX_BODY_BYTES = Integer.getInteger("har.maxBody", 0);
+  public static final String HAR_DIR = "target/har";
+
+  // Emulation Configuration (network/CPU throttling profile, e.g. "fast-3g" or "fast-3g+cpu-4x")
+  public static final String EMULATION_PROFILE = System.getProperty("emulation.profile", "");
+
+  // Page Performance Configuration
+  public static final boolean PERF_METRICS_ENABLED = Boolean.getBoolean("perf.metrics");
+  public static final String PERF_METRICS_FILE = "target/perf/page-metrics.jsonl";
+
+  // Browser Resource Configuration (sampled per test; recycled sessions over a limit are retired)
+  public static final boolean RESOURCE_MONITORING = Boolean.getBoolean("resources.monitor");
+  public static final long MAX_JS_HEAP_MB = Long.getLong("resources.maxHeapMb", 512);
+  public static final long MAX_BROWSER_MEMORY_MB = Long.getLong("resources.maxRssMb", 2048);
+  public static final String RESOURCE_SAMPLES_FILE = "target/perf/resources.jsonl";
+
+  // Live Metrics Configuration (OpenMetrics endpoint on 127.0.0.1; 0 disables it)
+  public static final int METRICS_PORT = Integer.getInteger("metrics.port", 0);
+
   // Retry Configuration
   public static final int MAX_RETRIES = 3;
   public static final long RETRY_WAIT_MS = 500;
+  // Total time all retries in the JVM may spend, and whole-test reruns allowed per test
+  public static final long RETRY_BUDGET_MS = Long.getLong("retry.budgetMs", 60_000);
+  public static final int TEST_RETRIES = Integer.getInteger("retry.tests", 0);
 
   private Config() {
     // Private constructor to prevent instantiation
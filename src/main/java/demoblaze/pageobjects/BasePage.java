@@ -1,7 +1,14 @@
 package demoblaze.pageobjects;
 
+import demoblaze.config.Config;
+import demoblaze.utils.AlertRecorder;
+import demoblaze.utils.PerformanceMonitor;
+import demoblaze.utils.RetryExecutor;
 import demoblaze.utils.TestLogger;
 import demoblaze.utils.WaitUtils;
+import java.time.Duration;
+import java.util.Optional;
+import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -25,39 +32,61 @@ public class BasePage {
     this.driver = driver;
   }
 
-  /** Clicks on an element after waiting for it to be clickable. */
+  /**
+   * Clicks on an element after waiting for it to be clickable. Stale or intercepted clicks are
+   * retried with the element located afresh.
+   */
   protected void click(By locator) {
     TestLogger.debug("Clicking on element: {}", locator);
-    WaitUtils.waitForElementToBeClickable(driver, locator).click();
+    RetryExecutor.run(
+        "click " + locator, () -> WaitUtils.waitForElementToBeClickable(driver, locator).click());
   }
 
   /** Clicks on a WebElement after waiting for it to be clickable. */
   protected void click(WebElement element) {
     TestLogger.debug("Clicking on web element");
-    WaitUtils.waitForElementToBeClickable(driver, element).click();
+    RetryExecutor.runOnElement(
+        "click web element", () -> WaitUtils.waitForElementToBeClickable(driver, element).click());
   }
 
   /** Types text into an element after waiting for visibility. */
   protected void sendKeys(By locator, String text) {
     TestLogger.debug("Typing text into element: {}", locator);
-    WaitUtils.waitForElementToBeVisible(driver, locator).sendKeys(text);
+    RetryExecutor.run(
+        "sendKeys " + locator,
+        () -> WaitUtils.waitForElementToBeVisible(driver, locator).sendKeys(text));
   }
 
   /** Clears and types text into an element. */
   protected void clearAndSendKeys(By locator, String text) {
-    WebElement element = WaitUtils.waitForElementToBeVisible(driver, locator);
-    element.clear();
-    element.sendKeys(text);
+    RetryExecutor.run(
+        "clearAndSendKeys " + locator,
+        () -> {
+          WebElement element = WaitUtils.waitForElementToBeVisible(driver, locator);
+          element.clear();
+          element.sendKeys(text);
+        });
   }
 
   /** Gets text from an element. */
   protected String getText(By locator) {
-    return WaitUtils.waitForElementToBeVisible(driver, locator).getText();
+    return RetryExecutor.execute(
+        "getText " + locator, () -> WaitUtils.waitForElementToBeVisible(driver, locator).getText());
   }
 
   /** Gets text from a WebElement. */
   protected String getText(WebElement element) {
-    return WaitUtils.waitForElementToBeVisible(driver, element).getText();
+    return RetryExecutor.executeOnElement(
+        "getText web element",
+        () -> WaitUtils.waitForElementToBeVisible(driver, element).getText());
+  }
+
+  /**
+   * Starts a batch of fills, clicks and reads that runs in as few WebDriver round trips as
+   * possible. Finish it with {@link InteractionBatch#run()}.
+   */
+  protected InteractionBatch batch() {
+    return new InteractionBatch(this, driver);
   }
 
   /** Gets attribute value from an element. */
@@ -79,17 +108,39 @@ public class BasePage {
     return WaitUtils.waitForElementToBeVisible(driver, locator);
   }
 
-  /** Switches to alert and gets text. */
+  /**
+   * Gets the text of the next alert and accepts it. With BiDi alert recording the text is taken
+   * from the event pushed when the alert opened and the recorder handles the alert itself, unless
+   * {@code alerts.policy} is "none"; otherwise the alert is polled for and accepted.
+   */
   protected String getAlertText() {
+    Optional<AlertRecorder> recorder = AlertRecorder.forDriver(driver);
+    if (recorder.isPresent()) {
+      String alertText = recorder.get().awaitNext(Duration.ofSeconds(Config.EXPLICIT_WAIT));
+      if (!AlertRecorder.handlesPrompts()) {
+        driver.switchTo().alert().accept();
+      }
+      return alertText;
+    }
     WaitUtils.waitForAlert(driver);
-    String alertText = driver.switchTo().alert().getText();
-    driver.switchTo().alert().accept();
+    Alert alert = driver.switchTo().alert();
+    String alertText = alert.getText();
+    alert.accept();
     return alertText;
   }
 
   /** Navigates to URL. */
   protected void navigateTo(String url) {
     driver.navigate().to(url);
+    recordPageMetrics();
+  }
+
+  /**
+   * Records load metrics of the current document under this page object's name and checks its
+   * performance budget. Called after navigations and readiness waits.
+   */
+  protected void recordPageMetrics() {
+    PerformanceMonitor.record(driver, getClass().getSimpleName());
   }
 
   /** Gets current page title. */
@@ -4,6 +4,7 @@ import demoblaze.utils.TestLogger;
 import demoblaze.utils.WaitUtils;
 import java.util.List;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
@@ -30,19 +31,28 @@ public class CartPage extends BasePage {
   public void waitForCartPageToLoad() {
     TestLogger.debug("Waiting for cart page to load");
     WaitUtils.waitForElementToBeVisible(driver, cartTable);
+    recordPageMetrics();
   }
 
   /** Gets total number of items in cart. */
   public int getCartItemCount() {
     TestLogger.debug("Getting cart item count");
     waitForCartPageToLoad();
-    List<WebElement> items = driver.findElements(cartItems);
+    List<WebElement> items = getCartItems();
     return items.size();
   }
 
-  /** Gets all items in cart. */
+  /**
+   * Gets all items in cart. Rows are loaded asynchronously, so waits for the first one instead of
+   * relying on the implicit wait; returns an empty list if the cart stays empty.
+   */
   public List<WebElement> getCartItems() {
     TestLogger.debug("Getting all cart items");
+    try {
+      WaitUtils.waitForElementToBePresent(driver, cartItems);
+    } catch (TimeoutException e) {
+      return List.of();
+    }
     return driver.findElements(cartItems);
   }
 
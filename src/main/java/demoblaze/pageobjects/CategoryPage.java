@@ -9,7 +9,7 @@ import org.openqa.selenium.WebDriver;
  * CategoryPage - Page Object for product category pages. Handles product listing and selection from
  * a specific category.
  */
-public class CategoryPage extends BasePage {
+public class CategoryPage extends ProductListingPage {
 
   // Locators
   private final By categoryTitle = By.cssSelector("div#tbodyid");
@@ -22,6 +22,7 @@ public class CategoryPage extends BasePage {
   public void waitForCategoryPageToLoad() {
     TestLogger.debug("Waiting for category page to load");
     WaitUtils.waitForElementToBeVisible(driver, categoryTitle);
+    recordPageMetrics();
   }
 
   /** Gets product by name and clicks on it. */
@@ -193,12 +193,14 @@ public class CheckoutPage extends BasePage {
     TestLogger.testStep("Fill checkout form with order details");
     waitForCheckoutPageToLoad();
 
-    enterName(name);
-    enterCountry(country);
-    enterCity(city);
-    enterCardNumber(cardNumber);
-    enterMonth(month);
-    enterYear(year);
+    batch()
+        .fill(nameInput, name)
+        .fill(countryInput, country)
+        .fill(cityInput, city)
+        .fill(cardInput, cardNumber)
+        .fill(monthInput, month)
+        .fill(yearInput, year)
+        .run();
 
     TestLogger.info("Checkout form filled successfully");
   }
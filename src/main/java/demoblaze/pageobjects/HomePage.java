@@ -9,7 +9,7 @@ import org.openqa.selenium.WebDriver;
  * HomePage - Page Object for the home page of DemoBlaze. Manages navigation to different product
  * categories.
  */
-public class HomePage extends BasePage {
+public class HomePage extends ProductListingPage {
 
   // Locators for product categories
   private By phonesCategoryLink = By.linkText("Phones");
@@ -31,25 +31,29 @@ public class HomePage extends BasePage {
   /** Verifies if home page is loaded. */
   public boolean isHomePageLoaded() {
     TestLogger.debug("Verifying home page is loaded");
-    return isElementDisplayed(phonesCategoryLink);
+    boolean loaded = isElementDisplayed(phonesCategoryLink);
+    if (loaded) {
+      recordPageMetrics();
+    }
+    return loaded;
   }
 
   /** Clicks on Phones category. */
   public void selectPhonesCategory() {
     TestLogger.testStep("Select Phones category");
-    click(phonesCategoryLink);
+    clickAndAwaitNewGrid(phonesCategoryLink);
   }
 
   /** Clicks on Laptops category. */
   public void selectLaptopsCategory() {
     TestLogger.testStep("Select Laptops category");
-    click(laptopsCategoryLink);
+    clickAndAwaitNewGrid(laptopsCategoryLink);
   }
 
   /** Clicks on Monitors category. */
   public void selectMonitorsCategory() {
     TestLogger.testStep("Select Monitors category");
-    click(monitorsCategoryLink);
+    clickAndAwaitNewGrid(monitorsCategoryLink);
   }
 
   /** Navigates to a specific category by name. */
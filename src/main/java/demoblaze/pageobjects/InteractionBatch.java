@@ -0,0 +1,218 @@
+package demoblaze.pageobjects;
+
+import demoblaze.config.Config;
+import demoblaze.utils.TestLogger;
+import demoblaze.utils.WaitUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * InteractionBatch - Collects a sequence of fills, clicks and reads and runs consecutive ones in a
+ * single script call instead of one wait and WebDriver round trip each. Fills set the value and
+ * fire bubbling {@code input} and {@code change} events, clicks dispatch a DOM click, and reads
+ * return the element's visible text.
+ *
+ * <p>If an element is not yet visible the script stops there; the batch waits for it and resumes
+ * from that step. Steps added with {@link #fillNatively} or {@link #clickNatively} go through the
+ * regular {@link BasePage} interactions (real keyboard and mouse input, with retries), as does
+ * every step when {@code -Dinteractions.batch=false}.
+ *
+ * <p>Obtain one with {@link BasePage#batch()}.
+ */
+public class InteractionBatch {
+
+  private static final String BATCH_SCRIPT =
+      "var steps = arguments[0], reads = [];"
+          + "function find(s) {"
+          + "  if (s.using === 'css selector') { return document.querySelector(s.value); }"
+          + "  if (s.using === 'xpath') {"
+          + "    return document.evaluate(s.value, document, null,"
+          + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+          + "  }"
+          + "  if (s.using === 'link text' || s.using === 'partial link text') {"
+          + "    var links = document.getElementsByTagName('a');"
+          + "    for (var i = 0; i < links.length; i++) {"
+          + "      var text = (links[i].innerText || '').trim();"
+          + "      if (s.using === 'link text' ? text === s.value : text.indexOf(s.value) >= 0) {"
+          + "        return links[i];"
+          + "      }"
+          + "    }"
+          + "    return null;"
+          + "  }"
+          + "  return document.getElementsByTagName(s.value)[0] || null;"
+          + "}"
+          + "function visible(el) {"
+          + "  return !!el && el.getClientRects().length > 0"
+          + "      && getComputedStyle(el).visibility !== 'hidden';"
+          + "}"
+          + "for (var i = 0; i < steps.length; i++) {"
+          + "  var s = steps[i], el = find(s);"
+          + "  if (!visible(el)) { return {done: i, reads: reads}; }"
+          + "  if (s.type === 'FILL') {"
+          + "    el.focus();"
+          + "    var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype"
+          + "        : el instanceof HTMLInputElement ? HTMLInputElement.prototype : null;"
+          // The prototype setter keeps frameworks that track the value property in sync
+          + "    if (proto) { Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, s.text); }"
+          + "    else { el.value = s.text; }"
+          + "    el.dispatchEvent(new Event('input', {bubbles: true}));"
+          + "    el.dispatchEvent(new Event('change', {bubbles: true}));"
+          + "  } else if (s.type === 'CLICK') {"
+          + "    el.click();"
+          + "  } else {"
+          + "    reads.push((el.innerText || el.textContent || '').trim());"
+          + "  }"
+          + "}"
+          + "return {done: steps.length, reads: reads};";
+
+  private enum Type {
+    FILL,
+    CLICK,
+    READ
+  }
+
+  private static final class Step {
+    private final Type type;
+    private final By locator;
+    private final String text;
+    private final boolean nativeInput;
+
+    private Step(Type type, By locator, String text, boolean nativeInput) {
+      this.type = type;
+      this.locator = locator;
+      this.text = text;
+      this.nativeInput = nativeInput;
+    }
+  }
+
+  private final BasePage page;
+  private final WebDriver driver;
+  private final List<Step> steps = new ArrayList<>();
+
+  InteractionBatch(BasePage page, WebDriver driver) {
+    this.page = page;
+    this.driver = driver;
+  }
+
+  /** Replaces the value of an input, firing input and change events. */
+  public InteractionBatch fill(By locator, String text) {
+    steps.add(new Step(Type.FILL, locator, text, false));
+    return this;
+  }
+
+  /** Clicks an element with a DOM click. */
+  public InteractionBatch click(By locator) {
+    steps.add(new Step(Type.CLICK, locator, null, false));
+    return this;
+  }
+
+  /** Reads an element's visible text; reads are returned by {@link #run()} in order. */
+  public InteractionBatch read(By locator) {
+    steps.add(new Step(Type.READ, locator, null, false));
+    return this;
+  }
+
+  /** Types into an input with real key events, for fields that react to individual keystrokes. */
+  public InteractionBatch fillNatively(By locator, String text) {
+    steps.add(new Step(Type.FILL, locator, text, true));
+    return this;
+  }
+
+  /** Clicks with a real mouse click, e.g. for submits whose handlers check pointer events. */
+  public InteractionBatch clickNatively(By locator) {
+    steps.add(new Step(Type.CLICK, locator, null, true));
+    return this;
+  }
+
+  /**
+   * Runs the collected steps in order.
+   *
+   * @return the text of every read step, in order
+   */
+  public List<String> run() {
+    List<String> reads = new ArrayList<>();
+    int roundTrips = 0;
+    int waitedAt = -1;
+    int index = 0;
+    while (index < steps.size()) {
+      if (!isScripted(steps.get(index))) {
+        runNatively(steps.get(index), reads);
+        roundTrips++;
+        index++;
+        continue;
+      }
+      int end = index;
+      while (end < steps.size() && isScripted(steps.get(end))) {
+        end++;
+      }
+      int done = runScripted(steps.subList(index, end), reads);
+      roundTrips++;
+      if (done == 0) {
+        if (waitedAt == index) {
+          // Visible to WebDriver but not to the script; let the native interaction handle it
+          runNatively(steps.get(index), reads);
+          roundTrips++;
+          index++;
+          continue;
+        }
+        WaitUtils.waitForElementToBeVisible(driver, steps.get(index).locator);
+        waitedAt = index;
+      }
+      index += done;
+    }
+    TestLogger.debug("Ran {} batched steps in {} round trips", steps.size(), roundTrips);
+    return reads;
+  }
+
+  private boolean isScripted(Step step) {
+    return Config.BATCH_INTERACTIONS
+        && !step.nativeInput
+        && step.locator instanceof By.Remotable
+        && driver instanceof JavascriptExecutor;
+  }
+
+  /**
+   * Runs consecutive steps in one script call.
+   *
+   * @return how many steps completed before one found no visible element
+   */
+  @SuppressWarnings("unchecked")
+  private int runScripted(List<Step> segment, List<String> reads) {
+    List<Map<String, String>> payload = new ArrayList<>();
+    for (Step step : segment) {
+      By.Remotable.Parameters parameters = ((By.Remotable) step.locator).getRemoteParameters();
+      Map<String, String> entry = new LinkedHashMap<>();
+      entry.put("type", step.type.name());
+      entry.put("using", parameters.using());
+      entry.put("value", String.valueOf(parameters.value()));
+      entry.put("text", step.text);
+      payload.add(entry);
+    }
+    Map<String, Object> result =
+        (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(BATCH_SCRIPT, payload);
+    for (Object read : (List<Object>) result.get("reads")) {
+      reads.add(String.valueOf(read));
+    }
+    return ((Number) result.get("done")).intValue();
+  }
+
+  private void runNatively(Step step, List<String> reads) {
+    switch (step.type) {
+      case FILL:
+        page.clearAndSendKeys(step.locator, step.text);
+        break;
+      case CLICK:
+        page.click(step.locator);
+        break;
+      case READ:
+      default:
+        reads.add(page.getText(step.locator));
+        break;
+    }
+  }
+}
@@ -48,9 +48,11 @@ public class LoginPage extends BasePage {
   public void login(String username, String password) {
     TestLogger.testStep("Login with username: {}", username);
     waitForLoginModal();
-    enterUsername(username);
-    enterPassword(password);
-    clickLoginButton();
+    batch()
+        .fill(loginUsernameInput, username)
+        .fill(loginPasswordInput, password)
+        .clickNatively(loginButton)
+        .run();
 
     // Wait for login to complete
     WaitUtils.waitForSeconds(2);
@@ -0,0 +1,43 @@
+package demoblaze.pageobjects;
+
+/** ProductCard - A product as listed in the storefront grid: name, displayed price and link. */
+public class ProductCard {
+  private final String name;
+  private final String priceText;
+  private final String link;
+
+  ProductCard(String name, String priceText, String link) {
+    this.name = name;
+    this.priceText = priceText;
+    this.link = link;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Price as displayed, e.g. "$360"; empty if the card shows none. */
+  public String getPriceText() {
+    return priceText;
+  }
+
+  /** Numeric price, or NaN if the card shows none. */
+  public double getPrice() {
+    String digits = priceText.replaceAll("[^0-9.]", "");
+    return digits.isEmpty() ? Double.NaN : Double.parseDouble(digits);
+  }
+
+  public boolean hasPrice() {
+    return !Double.isNaN(getPrice());
+  }
+
+  /** Absolute URL of the product detail page. */
+  public String getLink() {
+    return link;
+  }
+
+  @Override
+  public String toString() {
+    return name + " " + priceText;
+  }
+}
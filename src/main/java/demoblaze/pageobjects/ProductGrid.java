@@ -0,0 +1,159 @@
+package demoblaze.pageobjects;
+
+import demoblaze.config.Config;
+import demoblaze.utils.TestLogger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * ProductGrid - Lazily iterates the product cards of the storefront grid, page by page. Each page
+ * is read in one async script call; the next page is requested (by clicking "Next" inside the same
+ * call and waiting for the grid to be re-rendered) only once every card of the current page has
+ * been consumed. Iteration ends when "Next" is hidden or a page repeats, and leaves the grid on the
+ * last page read, so the first read clicks "Previous" back to page one: every grid iterates the
+ * category from its start. {@link ProductListingPage} switches categories so that the previous
+ * category's cards are gone by then.
+ */
+public class ProductGrid implements Iterator<ProductCard> {
+
+  /** How long a first page may stay without cards before it counts as an empty grid. */
+  private static final long EMPTY_GRID_SETTLE_MS = 3000;
+
+  private static final String PAGE_SCRIPT =
+      "var advance = arguments[0], timeout = arguments[1], settle = arguments[2];"
+          + "var done = arguments[arguments.length - 1], start = Date.now(), before = null, sig = null;"
+          + "function shown(id) {"
+          + "  var button = document.getElementById(id);"
+          + "  return !!button && button.getClientRects().length > 0"
+          + "      && getComputedStyle(button).visibility !== 'hidden';"
+          + "}"
+          + "function read() {"
+          + "  var cards = [], nodes = document.querySelectorAll('#tbodyid .card');"
+          + "  for (var i = 0; i < nodes.length; i++) {"
+          + "    var link = nodes[i].querySelector('.card-title a'), price = nodes[i].querySelector('h5');"
+          + "    if (link) {"
+          + "      cards.push({name: (link.innerText || link.textContent).trim(),"
+          + "          price: price ? (price.innerText || price.textContent).trim() : '',"
+          + "          link: link.href});"
+          + "    }"
+          + "  }"
+          + "  return {cards: cards, hasNext: shown('next2')};"
+          + "}"
+          + "function signature(page) {"
+          + "  return page.cards.map(function (card) { return card.link; }).join('|');"
+          + "}"
+          + "function press(id) {"
+          + "  before = document.querySelector('#tbodyid .card');"
+          + "  sig = signature(read());"
+          + "  start = Date.now();"
+          + "  document.getElementById(id).click();"
+          + "}"
+          + "if (advance) { press('next2'); } else if (shown('prev2')) { press('prev2'); }"
+          + "(function poll() {"
+          + "  var page = read();"
+          + "  var replaced = sig === null || signature(page) !== sig"
+          + "      || (before !== null && !document.body.contains(before));"
+          + "  if (page.cards.length > 0 && replaced) {"
+          + "    if (!advance && shown('prev2')) {"
+          + "      press('prev2');"
+          + "      setTimeout(poll, 100);"
+          + "      return;"
+          + "    }"
+          + "    page.signature = signature(page);"
+          + "    done(page);"
+          + "  } else if (!advance && sig === null && page.cards.length === 0"
+          + "      && document.readyState === 'complete' && Date.now() - start > settle) {"
+          + "    page.signature = '';"
+          + "    done(page);"
+          + "  } else if (Date.now() - start > timeout) {"
+          + "    done(null);"
+          + "  } else {"
+          + "    setTimeout(poll, 100);"
+          + "  }"
+          + "})();";
+
+  private final WebDriver driver;
+  private final Deque<ProductCard> buffered = new ArrayDeque<>();
+  private final Set<String> seenPages = new HashSet<>();
+  private boolean hasNextPage = true;
+  private int pagesRead;
+
+  ProductGrid(WebDriver driver) {
+    this.driver = driver;
+  }
+
+  /** The grid as an ordered, lazy stream; pages are read as the stream pulls their cards. */
+  public Stream<ProductCard> stream() {
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+        false);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (buffered.isEmpty() && hasNextPage) {
+      readPage();
+    }
+    return !buffered.isEmpty();
+  }
+
+  @Override
+  public ProductCard next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("No more products in the grid");
+    }
+    return buffered.pollFirst();
+  }
+
+  /** Grid pages read so far, i.e. script round trips made. */
+  public int getPagesRead() {
+    return pagesRead;
+  }
+
+  /**
+   * Rewinds to the first page and reads it on first use, otherwise advances to and reads the next
+   * one. A first page that stays without cards once the document has loaded reads as an empty grid.
+   */
+  @SuppressWarnings("unchecked")
+  private void readPage() {
+    boolean advance = pagesRead > 0;
+    Object raw =
+        ((JavascriptExecutor) driver)
+            .executeAsyncScript(
+                PAGE_SCRIPT, advance, Config.EXPLICIT_WAIT * 1000L, EMPTY_GRID_SETTLE_MS);
+    if (raw == null) {
+      throw new TimeoutException(
+          advance ? "Product grid did not change after Next" : "Product grid did not rewind");
+    }
+    Map<String, Object> page = (Map<String, Object>) raw;
+    pagesRead++;
+    String signature = (String) page.get("signature");
+    hasNextPage = !signature.isEmpty() && Boolean.TRUE.equals(page.get("hasNext"));
+    if (!seenPages.add(signature)) {
+      // "Next" led back to a page already read
+      hasNextPage = false;
+      return;
+    }
+    for (Map<String, Object> card : (List<Map<String, Object>>) page.get("cards")) {
+      buffered.addLast(
+          new ProductCard(
+              String.valueOf(card.get("name")),
+              String.valueOf(card.get("price")),
+              String.valueOf(card.get("link"))));
+    }
+    TestLogger.debug("Read product grid page {} ({} cards)", pagesRead, buffered.size());
+  }
+}
@@ -0,0 +1,50 @@
+package demoblaze.pageobjects;
+
+import demoblaze.utils.WaitUtils;
+import java.util.List;
+import java.util.stream.Stream;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * ProductListingPage - Parent class for pages showing the storefront product grid (home and
+ * category pages). Reads the grid through {@link ProductGrid} and switches categories so the grid
+ * is never read before the previous category's cards are gone.
+ */
+public abstract class ProductListingPage extends BasePage {
+
+  private final By productCards = By.cssSelector("#tbodyid .card");
+
+  protected ProductListingPage(WebDriver driver) {
+    super(driver);
+  }
+
+  /**
+   * Iterates every product card in the grid across its pages. Each page costs one script call and
+   * is only read when the iteration reaches it.
+   */
+  public ProductGrid productGrid() {
+    return new ProductGrid(driver);
+  }
+
+  /**
+   * Streams every product card in the grid, lazily: e.g. {@code
+   * products().allMatch(ProductCard::hasPrice)} stops paging at the first card without a price.
+   */
+  public Stream<ProductCard> products() {
+    return productGrid().stream();
+  }
+
+  /**
+   * Clicks a link that reloads the grid in place and waits until the cards shown before the click
+   * have been replaced, so the next read sees the new grid.
+   */
+  protected void clickAndAwaitNewGrid(By link) {
+    List<WebElement> previous = driver.findElements(productCards);
+    click(link);
+    if (!previous.isEmpty()) {
+      WaitUtils.waitForElementToBeStale(driver, previous.get(0));
+    }
+  }
+}
@@ -1,8 +1,10 @@
 package demoblaze.pageobjects;
 
+import demoblaze.testdata.CatalogIndex;
 import demoblaze.utils.TestLogger;
 import demoblaze.utils.WaitUtils;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 
 /**
@@ -25,6 +27,38 @@ public class ProductPage extends BasePage {
   public void waitForProductPageToLoad() {
     TestLogger.debug("Waiting for product page to load");
     WaitUtils.waitForElementToBeVisible(driver, productTitle);
+    recordPageMetrics();
+  }
+
+  /**
+   * Opens a product's detail page directly via the {@link CatalogIndex}, in one navigation. If the
+   * page does not show the indexed product the catalog has changed, so the index is rebuilt and the
+   * product opened again.
+   *
+   * @throws IllegalArgumentException if the product is not in the catalog
+   */
+  public void navigateToProduct(String productName) {
+    TestLogger.testStep("Navigate directly to product: %s", productName);
+    CatalogIndex catalog = CatalogIndex.getInstance();
+    for (int attempt = 1; ; attempt++) {
+      CatalogIndex.Product product =
+          catalog
+              .find(productName)
+              .orElseThrow(
+                  () -> new IllegalArgumentException("Product not in catalog: " + productName));
+      navigateTo(product.getDetailUrl());
+      try {
+        WaitUtils.waitForElementToHaveText(driver, productTitle, product.getName());
+        return;
+      } catch (TimeoutException e) {
+        if (attempt > 1) {
+          throw e;
+        }
+        TestLogger.warn(
+            "{} did not show {}, refreshing catalog index", product.getDetailUrl(), productName);
+        catalog.invalidate();
+      }
+    }
   }
 
   /** Gets product title. */
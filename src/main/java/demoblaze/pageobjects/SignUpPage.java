@@ -48,9 +48,11 @@ public class SignUpPage extends BasePage {
   public void signUp(String username, String password) {
     TestLogger.testStep("Sign Up new user: {}", username);
     waitForSignUpModal();
-    enterUsername(username);
-    enterPassword(password);
-    clickSignUpButton();
+    batch()
+        .fill(signupUsernameInput, username)
+        .fill(signupPasswordInput, password)
+        .clickNatively(signupButton)
+        .run();
 
     // Wait for success alert
     String alertMessage = getAlertText();
@@ -0,0 +1,223 @@
+package demoblaze.testdata;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import demoblaze.config.Config;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AccountPool - Pre-provisions DemoBlaze accounts through the backend sign-up API on a background
+ * thread and leases each one exclusively to a single test. Tests that need a logged-in user but do
+ * not test sign-up itself lease an account instead of signing up through the UI. Usernames carry a
+ * random UUID, so parallel JVMs never collide. The pool is filled when created and topped up when
+ * leases drain it, and its thread is stopped with {@link #shutdown()} at the end of the suite.
+ * Implements Singleton pattern.
+ */
+public class AccountPool {
+  private static final Logger logger = LoggerFactory.getLogger(AccountPool.class);
+
+  private static AccountPool instance;
+
+  private final BlockingQueue<Account> available = new LinkedBlockingQueue<>();
+  private final AtomicBoolean refilling = new AtomicBoolean();
+  private final HttpClient httpClient =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+  private final ExecutorService replenisher =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "account-pool");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private AccountPool() {
+    // Fill the pool right away, so it is warm before tests need it
+    requestRefill();
+  }
+
+  public static synchronized AccountPool getInstance() {
+    if (instance == null) {
+      instance = new AccountPool();
+    }
+    return instance;
+  }
+
+  /**
+   * Leases an account for exclusive use, waiting for the background thread if the pool is empty.
+   *
+   * @throws IllegalStateException if no account could be provisioned in time
+   */
+  public Account lease() {
+    Account account = available.poll();
+    if (account == null) {
+      requestRefill();
+      try {
+        account = available.poll(Config.ACCOUNT_LEASE_TIMEOUT, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (account == null) {
+      throw new IllegalStateException(
+          "No test account available within " + Config.ACCOUNT_LEASE_TIMEOUT + "s");
+    }
+    if (available.size() < lowWatermark()) {
+      requestRefill();
+    }
+    logger.info("Leased test account: {}", account.getUsername());
+    return account;
+  }
+
+  /**
+   * Returns an account to the pool. Its server-side cart is emptied first, in the background, so
+   * the next test starts with an empty cart; an account whose cart cannot be emptied is retired.
+   */
+  public void release(Account account) {
+    if (account == null) {
+      return;
+    }
+    try {
+      replenisher.execute(
+          () -> {
+            if (CartApi.emptyCart(account.getUsername())) {
+              available.offer(account);
+              logger.debug("Released test account: {}", account.getUsername());
+            } else {
+              retire(account);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      logger.debug("Pool shut down, dropping test account: {}", account.getUsername());
+    }
+  }
+
+  /** Discards an account whose state (cart, orders) should not leak into another test. */
+  public void retire(Account account) {
+    if (account != null) {
+      logger.debug("Retired test account: {}", account.getUsername());
+      requestRefill();
+    }
+  }
+
+  /**
+   * Stops the pool's background thread. Pooled accounts are abandoned, as no other run can use
+   * them; a later {@link #getInstance()} starts a new pool.
+   */
+  public static synchronized void shutdown() {
+    if (instance != null) {
+      instance.replenisher.shutdownNow();
+      instance = null;
+    }
+  }
+
+  /** Number of accounts ready to be leased. */
+  public int available() {
+    return available.size();
+  }
+
+  private int lowWatermark() {
+    return Math.max(1, Config.ACCOUNT_POOL_SIZE / 2);
+  }
+
+  private void requestRefill() {
+    try {
+      replenisher.execute(this::refill);
+    } catch (RejectedExecutionException e) {
+      logger.debug("Pool shut down, not refilling");
+    }
+  }
+
+  private void refill() {
+    if (!refilling.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      while (available.size() < Config.ACCOUNT_POOL_SIZE) {
+        Account account = provision();
+        if (account == null) {
+          return;
+        }
+        available.offer(account);
+      }
+    } finally {
+      refilling.set(false);
+    }
+  }
+
+  /** Creates an account through the same sign-up endpoint the storefront uses. */
+  private Account provision() {
+    String username = "pool_" + UUID.randomUUID().toString().replace("-", "");
+    String password = TestData.User.PASSWORD;
+    JsonObject body = new JsonObject();
+    body.addProperty("username", username);
+    // The storefront base64-encodes the password before sending it
+    body.addProperty(
+        "password", Base64.getEncoder().encodeToString(password.getBytes(StandardCharsets.UTF_8)));
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create(Config.API_URL + "signup"))
+            .timeout(Duration.ofSeconds(15))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+            .build();
+    try {
+      HttpResponse<String> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() != 200 || hasError(response.body())) {
+        logger.warn("Account provisioning failed ({}): {}", response.statusCode(), response.body());
+        return null;
+      }
+      logger.debug("Provisioned test account: {}", username);
+      return new Account(username, password);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (Exception e) {
+      logger.warn("Account provisioning failed: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  /** Whether a backend response reports an error; it answers 200 with an errorMessage. */
+  static boolean hasError(String body) {
+    String trimmed = body == null ? "" : body.trim();
+    if (!trimmed.startsWith("{")) {
+      return false;
+    }
+    return JsonParser.parseString(trimmed).getAsJsonObject().has("errorMessage");
+  }
+
+  /** Credentials of a provisioned account. */
+  public static class Account {
+    private final String username;
+    private final String password;
+
+    Account(String username, String password) {
+      this.username = username;
+      this.password = password;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+
+    public String getPassword() {
+      return password;
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package demoblaze.testdata;
+
+import com.google.gson.JsonObject;
+import demoblaze.config.Config;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CartApi - Cart calls against the DemoBlaze backend, for test setup that should not go through the
+ * UI, e.g. starting from an empty cart.
+ */
+public class CartApi {
+  private static final Logger logger = LoggerFactory.getLogger(CartApi.class);
+
+  private static final HttpClient httpClient =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+  private CartApi() {
+    // Private constructor to prevent instantiation
+  }
+
+  /**
+   * Empties a user's cart through the endpoint the storefront calls after an order.
+   *
+   * @return true if the cart was emptied
+   */
+  public static boolean emptyCart(String username) {
+    JsonObject body = new JsonObject();
+    body.addProperty("cookie", username);
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create(Config.API_URL + "deletecart"))
+            .timeout(Duration.ofSeconds(15))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+            .build();
+    try {
+      HttpResponse<String> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() != 200 || AccountPool.hasError(response.body())) {
+        logger.warn("Could not empty cart of {}: {}", username, response.body());
+        return false;
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (Exception e) {
+      logger.warn("Could not empty cart of {}: {}", username, e.getMessage());
+      return false;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package demoblaze.testdata;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CatalogIndex - Maps product names to their id, category, price and detail page URL, so page
+ * objects can open a product with one navigation instead of clicking through category and grid.
+ * Built once from the catalog API (following its pagination) the first time it is needed, and
+ * rebuilt after {@link #invalidate()}, e.g. when a deep link no longer shows the expected product.
+ * Implements Singleton pattern.
+ */
+public class CatalogIndex {
+  private static final Logger logger = LoggerFactory.getLogger(CatalogIndex.class);
+
+  private static final int MAX_PAGES = 20;
+
+  // API category codes and the storefront category names used by page objects and test data
+  private static final Map<String, String> CATEGORIES =
+      Map.of(
+          "phone", TestData.Categories.PHONES,
+          "notebook", TestData.Categories.LAPTOPS,
+          "monitor", TestData.Categories.MONITORS);
+
+  private static CatalogIndex instance;
+
+  private final HttpClient httpClient =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+  private Map<String, Product> products;
+
+  private CatalogIndex() {
+    // Built lazily on first lookup
+  }
+
+  public static synchronized CatalogIndex getInstance() {
+    if (instance == null) {
+      instance = new CatalogIndex();
+    }
+    return instance;
+  }
+
+  /** Finds a product by name, ignoring case; empty if it is not in the catalog. */
+  public Optional<Product> find(String productName) {
+    return Optional.ofNullable(index().get(productName.toLowerCase(Locale.ROOT)));
+  }
+
+  /** Every indexed product, in catalog order. */
+  public Collection<Product> products() {
+    return Collections.unmodifiableCollection(index().values());
+  }
+
+  /** Drops the index; the next lookup fetches the catalog again. */
+  public synchronized void invalidate() {
+    if (products != null) {
+      logger.info("Catalog index invalidated");
+    }
+    products = null;
+  }
+
+  private synchronized Map<String, Product> index() {
+    if (products == null) {
+      products = load();
+    }
+    return products;
+  }
+
+  /**
+   * Reads every catalog page. Returns an empty index if the API is unreachable, so callers fall
+   * back to browsing.
+   */
+  private Map<String, Product> load() {
+    Map<String, Product> loaded = new LinkedHashMap<>();
+    try {
+      JsonObject page = fetch(HttpRequest.newBuilder(URI.create(Config.API_URL + "entries")).GET());
+      for (int pages = 1; page != null; pages++) {
+        for (JsonElement item : page.getAsJsonArray("Items")) {
+          Product product = Product.from(item.getAsJsonObject());
+          loaded.putIfAbsent(product.getName().toLowerCase(Locale.ROOT), product);
+        }
+        JsonElement lastKey = page.get("LastEvaluatedKey");
+        if (lastKey == null || lastKey.isJsonNull() || pages >= MAX_PAGES) {
+          break;
+        }
+        JsonObject body = new JsonObject();
+        body.addProperty("id", lastKey.getAsJsonObject().get("id").getAsString());
+        page =
+            fetch(
+                HttpRequest.newBuilder(URI.create(Config.API_URL + "pagination"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+      }
+      logger.info("Catalog index built with {} products", loaded.size());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.warn("Catalog index unavailable, products will be browsed to: {}", e.getMessage());
+    }
+    return loaded;
+  }
+
+  private JsonObject fetch(HttpRequest.Builder request) throws IOException, InterruptedException {
+    HttpResponse<String> response =
+        httpClient.send(
+            request.timeout(Duration.ofSeconds(15)).build(), HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Catalog API returned " + response.statusCode());
+    }
+    return JsonParser.parseString(response.body()).getAsJsonObject();
+  }
+
+  /** A catalog entry. */
+  public static class Product {
+    private final int id;
+    private final String name;
+    private final String category;
+    private final double price;
+
+    Product(int id, String name, String category, double price) {
+      this.id = id;
+      this.name = name;
+      this.category = category;
+      this.price = price;
+    }
+
+    static Product from(JsonObject item) {
+      String category = item.get("cat").getAsString();
+      return new Product(
+          item.get("id").getAsInt(),
+          item.get("title").getAsString().trim(),
+          CATEGORIES.getOrDefault(category, category),
+          item.get("price").getAsDouble());
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /** Storefront category name, e.g. "Phones". */
+    public String getCategory() {
+      return category;
+    }
+
+    public double getPrice() {
+      return price;
+    }
+
+    /** Product detail page, opened directly without going through the grid. */
+    public String getDetailUrl() {
+      return Config.BASE_URL + "prod.html?idp_=" + id;
+    }
+
+    @Override
+    public String toString() {
+      return name + " (#" + id + ", " + category + ", $" + price + ")";
+    }
+  }
+}
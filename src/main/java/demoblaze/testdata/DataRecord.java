@@ -0,0 +1,77 @@
+package demoblaze.testdata;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * DataRecord - One row of a data-driven test. The raw row is parsed on first access, which happens
+ * on the test thread, so rows waiting to be executed only hold their unparsed text. Rows from a
+ * {@link StreamingDataSource#bounded} source must be {@link #release() released} when their test
+ * invocation ends.
+ */
+public class DataRecord {
+  private final long index;
+  private Supplier<Map<String, String>> parser;
+  private Map<String, String> values;
+  private final AtomicReference<Runnable> onRelease = new AtomicReference<>();
+
+  DataRecord(long index, Supplier<Map<String, String>> parser) {
+    this.index = index;
+    this.parser = parser;
+  }
+
+  /** Creates a record from already known values, e.g. in a generator. */
+  public static DataRecord of(long index, Map<String, String> values) {
+    return new DataRecord(index, () -> values);
+  }
+
+  /** Zero-based position of the record in its source. */
+  public long getIndex() {
+    return index;
+  }
+
+  /** Gets a field value, or null if the record has no such field. */
+  public String get(String field) {
+    return values().get(field);
+  }
+
+  /** Gets a field value, failing if it is missing. */
+  public String require(String field) {
+    String value = get(field);
+    if (value == null) {
+      throw new IllegalArgumentException("Record " + index + " has no field: " + field);
+    }
+    return value;
+  }
+
+  /** Gets all field values. */
+  public synchronized Map<String, String> values() {
+    if (values == null) {
+      values = Collections.unmodifiableMap(parser.get());
+      parser = null;
+    }
+    return values;
+  }
+
+  /**
+   * Marks the record's test invocation finished, letting a bounded source hand out the next record.
+   * Later calls, and calls on records from unbounded sources, do nothing.
+   */
+  public void release() {
+    Runnable action = onRelease.getAndSet(null);
+    if (action != null) {
+      action.run();
+    }
+  }
+
+  void onRelease(Runnable action) {
+    onRelease.set(action);
+  }
+
+  @Override
+  public String toString() {
+    return "DataRecord#" + index;
+  }
+}
@@ -0,0 +1,314 @@
+package demoblaze.testdata;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
+
+/**
+ * StreamingDataSource - Lazy record sources for TestNG data providers. Files are read one line at a
+ * time as TestNG pulls the next parameter set, and generators build records on demand, so datasets
+ * of any size are never materialized as {@code Object[][]}. Each element is a single {@link
+ * DataRecord} parameter.
+ *
+ * <p>TestNG reads a parallel provider's iterator to the end while scheduling invocations, so a
+ * parallel source must be wrapped in {@link #bounded} to keep only a fixed number of records in
+ * flight. Usage:
+ *
+ * <pre>{@code
+ * @DataProvider(name = "orders", parallel = true)
+ * public Iterator<Object[]> orders(ITestContext context) {
+ *   return StreamingDataSource.bounded(
+ *       StreamingDataSource.csv("data/orders.csv"),
+ *       context.getSuite().getXmlSuite().getDataProviderThreadCount());
+ * }
+ *
+ * @AfterMethod(alwaysRun = true)
+ * public void releaseRecord(ITestResult result) {
+ *   ((DataRecord) result.getParameters()[0]).release();
+ * }
+ * }</pre>
+ */
+public class StreamingDataSource {
+
+  /** How long a bounded source waits for a record to be released before failing the provider. */
+  public static final Duration DEFAULT_SLOT_TIMEOUT = Duration.ofMinutes(10);
+
+  private StreamingDataSource() {
+    // Private constructor to prevent instantiation
+  }
+
+  /**
+   * Streams a CSV file whose first line is the header. Quoted fields with embedded commas and
+   * doubled quotes are supported; quoted line breaks are not.
+   *
+   * @param location file system path, or classpath resource if no such file exists
+   */
+  public static Iterator<Object[]> csv(String location) {
+    BufferedReader reader = open(location);
+    String headerLine = readLine(reader);
+    if (headerLine == null) {
+      close(reader);
+      return List.<Object[]>of().iterator();
+    }
+    String[] header = parseCsvLine(headerLine).toArray(new String[0]);
+    return new LineIterator(
+        reader,
+        (index, line) ->
+            new DataRecord(
+                index,
+                () -> {
+                  List<String> fields = parseCsvLine(line);
+                  Map<String, String> values = new LinkedHashMap<>();
+                  for (int i = 0; i < header.length && i < fields.size(); i++) {
+                    values.put(header[i], fields.get(i));
+                  }
+                  return values;
+                }));
+  }
+
+  /**
+   * Streams a JSON Lines file with one flat object per line.
+   *
+   * @param location file system path, or classpath resource if no such file exists
+   */
+  public static Iterator<Object[]> jsonl(String location) {
+    return new LineIterator(
+        open(location),
+        (index, line) ->
+            new DataRecord(
+                index,
+                () -> {
+                  JsonObject object = JsonParser.parseString(line).getAsJsonObject();
+                  Map<String, String> values = new LinkedHashMap<>();
+                  for (Map.Entry<String, JsonElement> field : object.entrySet()) {
+                    JsonElement value = field.getValue();
+                    values.put(
+                        field.getKey(), value.isJsonPrimitive() ? value.getAsString() : null);
+                  }
+                  return values;
+                }));
+  }
+
+  /** Generates {@code count} records on demand from their index. */
+  public static Iterator<Object[]> generate(long count, LongFunction<DataRecord> generator) {
+    return new Iterator<Object[]>() {
+      private long next;
+
+      @Override
+      public boolean hasNext() {
+        return next < count;
+      }
+
+      @Override
+      public Object[] next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return new Object[] {generator.apply(next++)};
+      }
+    };
+  }
+
+  /**
+   * Limits a source to {@code limit} records in flight: {@code next()} blocks until a record handed
+   * out earlier has been {@link DataRecord#release() released}. With the limit set to the data
+   * provider thread count, TestNG never queues more invocations than it can run, so memory stays
+   * constant however many records the source has. Waits at most {@link #DEFAULT_SLOT_TIMEOUT} for a
+   * release.
+   */
+  public static Iterator<Object[]> bounded(Iterator<Object[]> source, int limit) {
+    return bounded(source, limit, DEFAULT_SLOT_TIMEOUT);
+  }
+
+  /**
+   * Limits a source to {@code limit} records in flight, as {@link #bounded(Iterator, int)}. Rows
+   * without a {@link DataRecord} parameter cannot be released, so they do not hold a slot.
+   *
+   * @param timeout how long {@code next()} waits for a release before failing, e.g. when a test's
+   *     {@code @AfterMethod} was skipped and its record is never released
+   * @throws IllegalStateException from {@code next()} if no record is released within the timeout
+   */
+  public static Iterator<Object[]> bounded(Iterator<Object[]> source, int limit, Duration timeout) {
+    Semaphore slots = new Semaphore(limit);
+    return new Iterator<Object[]>() {
+      @Override
+      public boolean hasNext() {
+        return source.hasNext();
+      }
+
+      @Override
+      public Object[] next() {
+        acquire();
+        Object[] row;
+        try {
+          row = source.next();
+        } catch (RuntimeException e) {
+          slots.release();
+          throw e;
+        }
+        // A row may carry several records; whichever is released first frees its one slot
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable free =
+            () -> {
+              if (held.getAndSet(false)) {
+                slots.release();
+              }
+            };
+        boolean releasable = false;
+        for (Object parameter : row) {
+          if (parameter instanceof DataRecord) {
+            ((DataRecord) parameter).onRelease(free);
+            releasable = true;
+          }
+        }
+        if (!releasable) {
+          free.run();
+        }
+        return row;
+      }
+
+      private void acquire() {
+        try {
+          if (!slots.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException(
+                "No data record released within "
+                    + timeout.toSeconds()
+                    + "s; "
+                    + limit
+                    + " records are in flight. Release each DataRecord in an"
+                    + " @AfterMethod(alwaysRun = true)");
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for a data record slot", e);
+        }
+      }
+    };
+  }
+
+  private static BufferedReader open(String location) {
+    try {
+      Path path = Paths.get(location);
+      if (Files.isRegularFile(path)) {
+        return Files.newBufferedReader(path, StandardCharsets.UTF_8);
+      }
+      InputStream resource =
+          StreamingDataSource.class.getClassLoader().getResourceAsStream(location);
+      if (resource == null) {
+        throw new IllegalArgumentException("Test data not found: " + location);
+      }
+      return new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open test data: " + location, e);
+    }
+  }
+
+  private static String readLine(BufferedReader reader) {
+    try {
+      return reader.readLine();
+    } catch (IOException e) {
+      close(reader);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void close(BufferedReader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      // Nothing left to read
+    }
+  }
+
+  /** Splits one CSV line into fields. */
+  static List<String> parseCsvLine(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString().trim());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString().trim());
+    return fields;
+  }
+
+  /** Maps a line and its record index to a record. */
+  private interface LineMapper {
+    DataRecord map(long index, String line);
+  }
+
+  /** Reads one non-blank line ahead and closes the reader at end of input. */
+  private static class LineIterator implements Iterator<Object[]> {
+    private final BufferedReader reader;
+    private final LineMapper mapper;
+    private String nextLine;
+    private long index;
+
+    LineIterator(BufferedReader reader, LineMapper mapper) {
+      this.reader = reader;
+      this.mapper = mapper;
+      advance();
+    }
+
+    private void advance() {
+      do {
+        nextLine = readLine(reader);
+      } while (nextLine != null && nextLine.isBlank());
+      if (nextLine == null) {
+        close(reader);
+      }
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+      return nextLine != null;
+    }
+
+    @Override
+    public synchronized Object[] next() {
+      if (nextLine == null) {
+        throw new NoSuchElementException();
+      }
+      DataRecord record = mapper.map(index++, nextLine);
+      advance();
+      return new Object[] {record};
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package demoblaze.testdata;
 
+import java.util.UUID;
+
 /**
  * TestData - Manages all test data required for test execution. Centralizes test data to follow DRY
  * principle and enable easy maintenance.
@@ -11,7 +13,12 @@ public class TestData {
     public static final String FIRSTNAME = "John";
     public static final String LASTNAME = "Doe";
     public static final String EMAIL = "john_" + System.currentTimeMillis() + "@example.com";
-    public static final String USERNAME = "testuser_" + System.currentTimeMillis();
+    // UUID suffix keeps usernames unique across parallel JVMs started in the same millisecond
+    public static final String USERNAME =
+        "testuser_"
+            + System.currentTimeMillis()
+            + "_"
+            + UUID.randomUUID().toString().substring(0, 8);
     public static final String PASSWORD = "SecurePass123!";
   }
 
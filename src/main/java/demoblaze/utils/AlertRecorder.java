@@ -0,0 +1,183 @@
+package demoblaze.utils;
+
+import demoblaze.config.Config;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.UserPromptOpened;
+import org.openqa.selenium.bidi.module.BrowsingContextInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AlertRecorder - Records native alerts pushed by WebDriver BiDi {@code
+ * browsingContext.userPromptOpened} events the moment they open, and handles them according to
+ * {@link Config#ALERT_POLICY}. Replaces polling for {@code alertIsPresent}: callers either wait on
+ * the next recorded alert or assert on the alert history afterwards.
+ */
+public class AlertRecorder {
+  private static final Logger logger = LoggerFactory.getLogger(AlertRecorder.class);
+
+  private static final int HISTORY_LIMIT = 100;
+  private static final Map<WebDriver, AlertRecorder> recorders =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final WebDriver driver;
+  private final BrowsingContextInspector inspector;
+  private final LinkedBlockingDeque<Prompt> unread = new LinkedBlockingDeque<>(HISTORY_LIMIT);
+  private final List<String> history = Collections.synchronizedList(new ArrayList<>());
+  // Prompt handling is a BiDi command and must not run on the BiDi event thread
+  private final ExecutorService handler =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "alert-handler");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private AlertRecorder(WebDriver driver) {
+    this.driver = driver;
+    this.inspector = new BrowsingContextInspector(driver);
+    inspector.onUserPromptOpened(this::onPromptOpened);
+  }
+
+  /**
+   * Subscribes to prompt events of a driver created with BiDi enabled.
+   *
+   * @return the recorder, or empty if the session does not support BiDi
+   */
+  public static Optional<AlertRecorder> attach(WebDriver driver) {
+    try {
+      AlertRecorder recorder = new AlertRecorder(driver);
+      recorders.put(driver, recorder);
+      logger.info("BiDi alert recorder attached (policy: {})", Config.ALERT_POLICY);
+      return Optional.of(recorder);
+    } catch (Exception e) {
+      logger.warn("BiDi alert recorder unavailable, falling back to polling: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Gets the recorder attached to a driver, if any. */
+  public static Optional<AlertRecorder> forDriver(WebDriver driver) {
+    return Optional.ofNullable(recorders.get(driver));
+  }
+
+  /** Stops recording for a driver that is about to quit. */
+  public static void detach(WebDriver driver) {
+    AlertRecorder recorder = recorders.remove(driver);
+    if (recorder != null) {
+      recorder.handler.shutdownNow();
+      try {
+        recorder.inspector.close();
+      } catch (Exception e) {
+        logger.debug("Could not close BiDi inspector: {}", e.getMessage());
+      }
+    }
+  }
+
+  private void onPromptOpened(UserPromptOpened prompt) {
+    String message = prompt.getMessage();
+    synchronized (history) {
+      history.add(message);
+      if (history.size() > HISTORY_LIMIT) {
+        history.remove(0);
+      }
+    }
+    boolean handles = handlesPrompts();
+    Prompt recorded = new Prompt(message, handles);
+    if (!unread.offerLast(recorded)) {
+      unread.pollFirst();
+      unread.offerLast(recorded);
+    }
+    logger.debug("Alert opened: {}", message);
+
+    if (handles) {
+      boolean accept = "accept".equals(Config.ALERT_POLICY);
+      try {
+        handler.execute(
+            () -> {
+              try {
+                new BrowsingContext(driver, prompt.getBrowsingContextId()).handleUserPrompt(accept);
+              } catch (Exception e) {
+                logger.debug("Could not handle alert: {}", e.getMessage());
+              } finally {
+                recorded.handled.countDown();
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        // Detached while the event was in flight; the driver is quitting
+        recorded.handled.countDown();
+      }
+    }
+  }
+
+  /** Whether recorded prompts are accepted or dismissed here, i.e. the policy is not "none". */
+  public static boolean handlesPrompts() {
+    return !"none".equals(Config.ALERT_POLICY);
+  }
+
+  /**
+   * Waits for the next alert not yet returned by this method. Returns immediately if it already
+   * opened and has been handled; no WebDriver round trips are made while waiting. Unless the policy
+   * is "none", the alert is closed by the time this returns, so the page can be used straight away.
+   * With "none" the alert is still open and the caller must handle it.
+   *
+   * @throws TimeoutException if no alert opens, or it is not handled, within the timeout
+   */
+  public String awaitNext(Duration timeout) {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    try {
+      Prompt prompt = unread.pollFirst(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      if (prompt == null) {
+        throw new TimeoutException("No alert opened within " + timeout.toSeconds() + "s");
+      }
+      long remaining = Math.max(0, deadline - System.nanoTime());
+      if (!prompt.handled.await(remaining, TimeUnit.NANOSECONDS)) {
+        throw new TimeoutException(
+            "Alert '" + prompt.message + "' not handled within " + timeout.toSeconds() + "s");
+      }
+      return prompt.message;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for alert", e);
+    }
+  }
+
+  /** The most recent alert messages (up to 100), oldest first. */
+  public List<String> getHistory() {
+    synchronized (history) {
+      return new ArrayList<>(history);
+    }
+  }
+
+  /** Clears recorded alerts, e.g. between test classes sharing a recycled driver. */
+  public void clear() {
+    history.clear();
+    unread.clear();
+  }
+
+  /** An opened prompt; {@code handled} opens once the policy has been applied to it. */
+  private static final class Prompt {
+    private final String message;
+    private final CountDownLatch handled;
+
+    private Prompt(String message, boolean pending) {
+      this.message = message;
+      this.handled = new CountDownLatch(pending ? 1 : 0);
+    }
+  }
+}
@@ -0,0 +1,658 @@
+package demoblaze.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import demoblaze.config.Config;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AssetCacheProxy - Local HTTP(S) proxy that serves the storefront's static assets (scripts,
+ * stylesheets, fonts, images) from a disk cache shared by every session and run. Each driver starts
+ * with an empty profile, so without it every new session downloads jQuery, Bootstrap and the
+ * product images again. Everything else, such as the API calls, is passed through to the origin.
+ *
+ * <p>HTTPS is intercepted with a self-signed certificate generated once with keytool and kept in
+ * the cache directory; {@link BrowserFactory} routes browsers through the proxy and lets them
+ * accept that certificate. Enabled with {@code -Dassets.cache=true}. Hits, misses and bytes saved
+ * are logged and written to {@code target/perf/asset-cache.json} when the JVM exits.
+ */
+public class AssetCacheProxy {
+  private static final Logger logger = LoggerFactory.getLogger(AssetCacheProxy.class);
+
+  private static final Gson gson = new Gson();
+
+  private static final Pattern STATIC_ASSET =
+      Pattern.compile("(?i).*\\.(js|css|png|jpe?g|gif|svg|webp|ico|woff2?|ttf|otf|eot)$");
+  // Headers that describe one connection rather than the message, or that we set ourselves
+  private static final Set<String> HOP_BY_HOP =
+      Set.of(
+          "connection",
+          "keep-alive",
+          "proxy-connection",
+          "proxy-authorization",
+          "transfer-encoding",
+          "te",
+          "trailer",
+          "upgrade",
+          "content-length",
+          "host",
+          "expect");
+  private static final Set<String> CONDITIONAL =
+      Set.of("if-none-match", "if-modified-since", "if-match", "if-range");
+
+  private static final String KEYSTORE_FILE = "proxy-keystore.p12";
+  private static final char[] KEYSTORE_PASSWORD = "demoblaze-asset-cache".toCharArray();
+  private static final int IDLE_TIMEOUT_MILLIS = 60_000;
+  private static final Duration UPSTREAM_TIMEOUT = Duration.ofSeconds(30);
+  private static final Path REPORT_FILE = Paths.get("target", "perf", "asset-cache.json");
+
+  private static AssetCacheProxy shared;
+  private static boolean startFailed;
+
+  private final Path directory;
+  private final Duration ttl;
+  private final SSLContext tls;
+  private final ServerSocket server;
+  private final ExecutorService connections;
+  private final HttpClient upstream;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong passedThrough = new AtomicLong();
+  private final AtomicLong bytesFromCache = new AtomicLong();
+  private final AtomicLong bytesDownloaded = new AtomicLong();
+
+  private AssetCacheProxy(Path directory, Duration ttl) throws IOException {
+    this.directory = directory;
+    this.ttl = ttl;
+    Files.createDirectories(directory);
+    this.tls = tlsContext(directory.resolve(KEYSTORE_FILE));
+    this.server = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+    this.connections =
+        Executors.newCachedThreadPool(
+            task -> {
+              Thread thread = new Thread(task, "asset-cache-proxy");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.upstream =
+        HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(UPSTREAM_TIMEOUT)
+            .build();
+    Thread acceptor = new Thread(this::acceptLoop, "asset-cache-proxy-accept");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * The proxy shared by all drivers of this JVM, started on first use.
+   *
+   * @return the proxy, or empty if the cache is disabled or the proxy could not start
+   */
+  public static synchronized Optional<AssetCacheProxy> shared() {
+    if (!Config.ASSET_CACHE || startFailed) {
+      return Optional.empty();
+    }
+    if (shared == null) {
+      try {
+        shared =
+            new AssetCacheProxy(
+                Paths.get(Config.ASSET_CACHE_DIR), Duration.ofHours(Config.ASSET_CACHE_TTL_HOURS));
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread(shared::stop, "asset-cache-proxy-shutdown"));
+        logger.info(
+            "Asset cache proxy listening on {} (cache: {})",
+            shared.address(),
+            shared.directory.toAbsolutePath());
+      } catch (IOException e) {
+        startFailed = true;
+        logger.warn(
+            "Asset cache proxy could not start, browsers connect directly: {}", e.getMessage());
+        return Optional.empty();
+      }
+    }
+    return Optional.of(shared);
+  }
+
+  /** Host and port to configure as the browser's HTTP and HTTPS proxy. */
+  public String address() {
+    return server.getInetAddress().getHostAddress() + ":" + server.getLocalPort();
+  }
+
+  /** Hit and byte counts so far. */
+  public Map<String, Object> stats() {
+    long assetRequests = hits.get() + misses.get();
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("hits", hits.get());
+    stats.put("misses", misses.get());
+    stats.put("passedThrough", passedThrough.get());
+    stats.put("hitRate", assetRequests == 0 ? 0.0 : (double) hits.get() / assetRequests);
+    stats.put("bytesSaved", bytesFromCache.get());
+    stats.put("bytesDownloaded", bytesDownloaded.get());
+    return stats;
+  }
+
+  /** Stops accepting connections and writes the hit-rate report. */
+  public void stop() {
+    try {
+      server.close();
+    } catch (IOException e) {
+      logger.debug("Error closing asset cache proxy: {}", e.getMessage());
+    }
+    connections.shutdownNow();
+    Map<String, Object> stats = stats();
+    logger.info(
+        "Asset cache: {} hits, {} misses ({}% hit rate), {} KB saved, {} requests passed through",
+        stats.get("hits"),
+        stats.get("misses"),
+        Math.round((double) stats.get("hitRate") * 100),
+        bytesFromCache.get() / 1024,
+        stats.get("passedThrough"));
+    try {
+      Files.createDirectories(REPORT_FILE.getParent());
+      Files.write(
+          REPORT_FILE,
+          new GsonBuilder()
+              .setPrettyPrinting()
+              .create()
+              .toJson(stats)
+              .getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      logger.warn("Could not write asset cache report: {}", e.getMessage());
+    }
+  }
+
+  private void acceptLoop() {
+    while (!server.isClosed()) {
+      try {
+        Socket socket = server.accept();
+        connections.execute(() -> serve(socket));
+      } catch (IOException e) {
+        if (!server.isClosed()) {
+          logger.debug("Asset cache proxy accept failed: {}", e.getMessage());
+        }
+      }
+    }
+  }
+
+  /** Serves one browser connection: plain HTTP proxy requests, or a CONNECT tunnel to intercept. */
+  private void serve(Socket socket) {
+    try (Socket connection = socket) {
+      connection.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+      InputStream in = new BufferedInputStream(connection.getInputStream());
+      OutputStream out = new BufferedOutputStream(connection.getOutputStream());
+      Request first = Request.read(in);
+      if (first == null) {
+        return;
+      }
+      if (!"CONNECT".equals(first.method)) {
+        exchange(in, out, null, first);
+        return;
+      }
+      // The browser waits for this answer before starting TLS, so nothing is buffered yet
+      out.write(
+          "HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+      out.flush();
+      String authority = first.target;
+      String origin =
+          "https://"
+              + (authority.endsWith(":443")
+                  ? authority.substring(0, authority.length() - 4)
+                  : authority);
+      int port = server.getLocalPort();
+      try (SSLSocket tlsSocket =
+          (SSLSocket) tls.getSocketFactory().createSocket(connection, "localhost", port, false)) {
+        tlsSocket.setUseClientMode(false);
+        exchange(
+            new BufferedInputStream(tlsSocket.getInputStream()),
+            new BufferedOutputStream(tlsSocket.getOutputStream()),
+            origin,
+            null);
+      }
+    } catch (SocketException e) {
+      logger.trace("Asset cache proxy connection closed: {}", e.getMessage());
+    } catch (IOException e) {
+      logger.debug("Asset cache proxy connection failed: {}", e.getMessage());
+    }
+  }
+
+  /** Answers requests on one connection until the browser closes it or asks to. */
+  private void exchange(InputStream in, OutputStream out, String origin, Request first)
+      throws IOException {
+    Request request = first == null ? Request.read(in) : first;
+    while (request != null) {
+      Response response =
+          respond(request, origin == null ? request.target : origin + request.target);
+      response.write(out, request.keepAlive());
+      if (!request.keepAlive()) {
+        return;
+      }
+      request = Request.read(in);
+    }
+  }
+
+  private Response respond(Request request, String target) {
+    URI uri;
+    try {
+      uri = URI.create(target);
+    } catch (IllegalArgumentException e) {
+      return Response.error(400, "Bad request target: " + target);
+    }
+    String path = uri.getPath() == null ? "" : uri.getPath();
+    boolean asset = "GET".equals(request.method) && STATIC_ASSET.matcher(path).matches();
+    try {
+      if (!asset) {
+        passedThrough.incrementAndGet();
+        return fetch(request, uri, false);
+      }
+      Optional<Response> cached = load(uri);
+      if (cached.isPresent()) {
+        hits.incrementAndGet();
+        bytesFromCache.addAndGet(cached.get().body.length);
+        return cached.get();
+      }
+      misses.incrementAndGet();
+      Response response = fetch(request, uri, true);
+      if (response.isStorable()) {
+        store(uri, response);
+      }
+      return response;
+    } catch (IOException e) {
+      logger.debug("Upstream request {} failed: {}", uri, e.getMessage());
+      return Response.error(502, "Upstream request failed: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Response.error(503, "Proxy shutting down");
+    } catch (IllegalArgumentException e) {
+      return Response.error(400, "Bad request target: " + uri);
+    }
+  }
+
+  /**
+   * Forwards a request to the origin.
+   *
+   * @param forCache ask for a response every browser can be served later: the full body even if
+   *     this browser holds a copy, and without content encoding, since the cache key is the URL
+   *     alone and browsers accept different encodings
+   */
+  private Response fetch(Request request, URI uri, boolean forCache)
+      throws IOException, InterruptedException {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(uri)
+            .timeout(UPSTREAM_TIMEOUT)
+            .method(
+                request.method,
+                request.body.length == 0
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(request.body));
+    for (String[] header : request.headers) {
+      String name = header[0].toLowerCase(Locale.ROOT);
+      if (HOP_BY_HOP.contains(name)
+          || (forCache && (CONDITIONAL.contains(name) || "accept-encoding".equals(name)))) {
+        continue;
+      }
+      try {
+        builder.header(header[0], header[1]);
+      } catch (IllegalArgumentException e) {
+        // A header HttpClient manages itself
+      }
+    }
+    if (forCache) {
+      builder.header("Accept-Encoding", "identity");
+    }
+    HttpResponse<byte[]> response =
+        upstream.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    bytesDownloaded.addAndGet(response.body().length);
+    Map<String, List<String>> headers = new LinkedHashMap<>();
+    response
+        .headers()
+        .map()
+        .forEach(
+            (name, values) -> {
+              if (!name.startsWith(":") && !HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, values);
+              }
+            });
+    if ("HEAD".equals(request.method)) {
+      // No body comes back, so the length to announce is the origin's, not ours
+      response
+          .headers()
+          .firstValue("content-length")
+          .ifPresent(length -> headers.put("Content-Length", List.of(length)));
+    }
+    return new Response(response.statusCode(), headers, response.body());
+  }
+
+  private Optional<Response> load(URI uri) {
+    String key = key(uri);
+    Path meta = directory.resolve(key + ".json");
+    Path body = directory.resolve(key + ".bin");
+    if (!Files.isRegularFile(meta) || !Files.isRegularFile(body)) {
+      return Optional.empty();
+    }
+    try {
+      Entry entry = gson.fromJson(Files.readString(meta), Entry.class);
+      if (entry == null
+          || !uri.toString().equals(entry.url)
+          || System.currentTimeMillis() - entry.storedAtMillis > ttl.toMillis()) {
+        return Optional.empty();
+      }
+      Map<String, List<String>> headers = new LinkedHashMap<>(entry.headers);
+      headers.put("X-Asset-Cache", List.of("HIT"));
+      return Optional.of(new Response(entry.status, headers, Files.readAllBytes(body)));
+    } catch (IOException | JsonParseException e) {
+      logger.debug("Ignoring unreadable cache entry {}: {}", meta, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Writes body then metadata, each atomically, so concurrent runs never read half an entry. */
+  private void store(URI uri, Response response) {
+    String key = key(uri);
+    Entry entry = new Entry();
+    entry.url = uri.toString();
+    entry.status = response.status;
+    entry.headers = response.headers;
+    entry.storedAtMillis = System.currentTimeMillis();
+    try {
+      writeAtomically(directory.resolve(key + ".bin"), response.body);
+      writeAtomically(
+          directory.resolve(key + ".json"), gson.toJson(entry).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      logger.debug("Could not cache {}: {}", uri, e.getMessage());
+    }
+  }
+
+  private static void writeAtomically(Path file, byte[] content) throws IOException {
+    Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temp, content);
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static String key(URI uri) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256")
+              .digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder();
+      for (byte b : digest) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /** TLS server context with the proxy's certificate, generating it on first use. */
+  private static SSLContext tlsContext(Path keystore) throws IOException {
+    if (!Files.isRegularFile(keystore)) {
+      generateKeystore(keystore);
+    }
+    try (InputStream in = Files.newInputStream(keystore)) {
+      KeyStore store = KeyStore.getInstance("PKCS12");
+      store.load(in, KEYSTORE_PASSWORD);
+      KeyManagerFactory keys =
+          KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+      keys.init(store, KEYSTORE_PASSWORD);
+      SSLContext context = SSLContext.getInstance("TLS");
+      context.init(keys.getKeyManagers(), null, null);
+      return context;
+    } catch (GeneralSecurityException e) {
+      throw new IOException("Unusable proxy keystore " + keystore, e);
+    }
+  }
+
+  private static void generateKeystore(Path keystore) throws IOException {
+    Path temp =
+        keystore.resolveSibling(keystore.getFileName() + "." + ProcessHandle.current().pid());
+    String password = new String(KEYSTORE_PASSWORD);
+    Process keytool =
+        new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair",
+                "-alias",
+                "asset-cache",
+                "-keyalg",
+                "RSA",
+                "-keysize",
+                "2048",
+                "-validity",
+                "3650",
+                "-dname",
+                "CN=DemoBlaze asset cache",
+                "-ext",
+                "SAN=dns:localhost",
+                "-storetype",
+                "PKCS12",
+                "-keystore",
+                temp.toString(),
+                "-storepass",
+                password,
+                "-keypass",
+                password)
+            .redirectErrorStream(true)
+            .start();
+    try {
+      String output = new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+      if (!keytool.waitFor(60, TimeUnit.SECONDS) || keytool.exitValue() != 0) {
+        throw new IOException("keytool could not create the proxy certificate: " + output.trim());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      keytool.destroyForcibly();
+      throw new IOException("Interrupted while creating the proxy certificate", e);
+    }
+    Files.move(temp, keystore, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    logger.info("Generated asset cache proxy certificate {}", keystore);
+  }
+
+  /** Cache entry metadata, stored next to the body. */
+  private static final class Entry {
+    private String url;
+    private int status;
+    private Map<String, List<String>> headers;
+    private long storedAtMillis;
+  }
+
+  /** One HTTP/1.1 request read from the browser. */
+  private static final class Request {
+    private String method;
+    private String target;
+    private String version;
+    private final List<String[]> headers = new ArrayList<>();
+    private byte[] body = new byte[0];
+
+    /** Reads the next request, or returns null when the browser closed the connection. */
+    private static Request read(InputStream in) throws IOException {
+      String line = readLine(in);
+      while (line != null && line.isEmpty()) {
+        line = readLine(in);
+      }
+      if (line == null) {
+        return null;
+      }
+      String[] parts = line.split(" ");
+      if (parts.length != 3) {
+        throw new IOException("Malformed request line: " + line);
+      }
+      Request request = new Request();
+      request.method = parts[0];
+      request.target = parts[1];
+      request.version = parts[2];
+      line = readLine(in);
+      while (line != null && !line.isEmpty()) {
+        int colon = line.indexOf(':');
+        if (colon > 0) {
+          request.headers.add(
+              new String[] {line.substring(0, colon).trim(), line.substring(colon + 1).trim()});
+        }
+        line = readLine(in);
+      }
+      if ("chunked".equalsIgnoreCase(request.header("transfer-encoding"))) {
+        request.body = readChunked(in);
+      } else if (request.header("content-length") != null) {
+        request.body = in.readNBytes(Integer.parseInt(request.header("content-length")));
+      }
+      return request;
+    }
+
+    private String header(String name) {
+      for (String[] header : headers) {
+        if (header[0].equalsIgnoreCase(name)) {
+          return header[1];
+        }
+      }
+      return null;
+    }
+
+    private boolean keepAlive() {
+      String connection = header("proxy-connection");
+      if (connection == null) {
+        connection = header("connection");
+      }
+      if (connection != null) {
+        return !"close".equalsIgnoreCase(connection);
+      }
+      return "HTTP/1.1".equals(version);
+    }
+
+    private static byte[] readChunked(InputStream in) throws IOException {
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      String size = readLine(in);
+      while (size != null) {
+        int semicolon = size.indexOf(';');
+        int length =
+            Integer.parseInt((semicolon >= 0 ? size.substring(0, semicolon) : size).trim(), 16);
+        if (length == 0) {
+          // Skip trailers up to the blank line ending the message
+          String trailer = readLine(in);
+          while (trailer != null && !trailer.isEmpty()) {
+            trailer = readLine(in);
+          }
+          break;
+        }
+        body.write(in.readNBytes(length));
+        readLine(in);
+        size = readLine(in);
+      }
+      return body.toByteArray();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+      StringBuilder line = new StringBuilder();
+      int c = in.read();
+      if (c < 0) {
+        return null;
+      }
+      while (c >= 0 && c != '\n') {
+        if (c != '\r') {
+          line.append((char) c);
+        }
+        c = in.read();
+      }
+      return line.toString();
+    }
+  }
+
+  /** A response to send back to the browser. */
+  private static final class Response {
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    private Response(int status, Map<String, List<String>> headers, byte[] body) {
+      this.status = status;
+      this.headers = headers;
+      this.body = body;
+    }
+
+    private static Response error(int status, String message) {
+      return new Response(
+          status,
+          Map.of("Content-Type", List.of("text/plain; charset=utf-8")),
+          message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Only complete, public, cookie-free and unencoded responses are shared between sessions; an
+     * origin may ignore the request for identity encoding.
+     */
+    private boolean isStorable() {
+      if (status != 200) {
+        return false;
+      }
+      for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+        String name = header.getKey().toLowerCase(Locale.ROOT);
+        String value = String.join(",", header.getValue()).toLowerCase(Locale.ROOT);
+        if ("set-cookie".equals(name)
+            || ("content-encoding".equals(name) && !"identity".equals(value))
+            || ("cache-control".equals(name)
+                && (value.contains("no-store") || value.contains("private")))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void write(OutputStream out, boolean keepAlive) throws IOException {
+      StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append(" \r\n");
+      headers.forEach(
+          (name, values) ->
+              values.forEach(value -> head.append(name).append(": ").append(value).append("\r\n")));
+      if (headers.keySet().stream().noneMatch("content-length"::equalsIgnoreCase)) {
+        head.append("Content-Length: ").append(body.length).append("\r\n");
+      }
+      head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+      out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+      out.write(body);
+      out.flush();
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package demoblaze.utils;
+
+import com.google.gson.GsonBuilder;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * BrowserContextBenchmark - Opens the same number of concurrent sessions on {@link Config#BASE_URL}
+ * twice, once as one browser process per session and once as browser contexts in a shared browser
+ * ({@link BrowserContextPool}), and compares the memory of the driver and browser processes (see
+ * {@link ProcessTree}) and the time to open a session. Writes {@code
+ * target/benchmark/browser-contexts.json}.
+ *
+ * <p>Run with: {@code mvn compile exec:java
+ * -Dexec.mainClass=demoblaze.utils.BrowserContextBenchmark -Dheadless=true -Dbenchmark.sessions=8}
+ */
+public class BrowserContextBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(BrowserContextBenchmark.class);
+
+  private BrowserContextBenchmark() {
+    // Private constructor to prevent instantiation
+  }
+
+  public static void main(String[] args) throws IOException {
+    int sessions = Integer.getInteger("benchmark.sessions", 8);
+
+    Map<String, Object> processes =
+        measure(
+            "process per session",
+            sessions,
+            BrowserFactory::createDriver,
+            BrowserFactory::quitDriver);
+    Map<String, Object> contexts =
+        measure(
+            "browser contexts",
+            sessions,
+            () -> BrowserContextPool.acquire(Config.BROWSER),
+            BrowserContextPool::release);
+    BrowserContextPool.quitAll();
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("browser", Config.BROWSER);
+    report.put("sessions", sessions);
+    report.put("processPerSession", processes);
+    report.put("browserContexts", contexts);
+
+    Path output = Paths.get("target", "benchmark", "browser-contexts.json");
+    Files.createDirectories(output.getParent());
+    Files.write(
+        output,
+        new GsonBuilder()
+            .setPrettyPrinting()
+            .create()
+            .toJson(report)
+            .getBytes(StandardCharsets.UTF_8));
+    logger.info("Benchmark written to {}", output);
+  }
+
+  /** Opens the sessions side by side, measures them while all are open, then closes them. */
+  private static Map<String, Object> measure(
+      String model, int sessions, Supplier<WebDriver> open, Consumer<WebDriver> close) {
+    long baseline = ProcessTree.memoryBytes();
+    List<WebDriver> drivers = new ArrayList<>();
+    List<Double> openMillis = new ArrayList<>();
+    try {
+      for (int i = 0; i < sessions; i++) {
+        long start = System.nanoTime();
+        WebDriver driver = open.get();
+        drivers.add(driver);
+        driver.navigate().to(Config.BASE_URL);
+        openMillis.add((System.nanoTime() - start) / 1e6);
+      }
+      long total = ProcessTree.memoryBytes() - baseline;
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("memoryBytes", total);
+      result.put("memoryBytesPerSession", total / sessions);
+      result.put(
+          "openMillisPerSession",
+          openMillis.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN));
+      logger.info(
+          "{}: {} MiB for {} sessions ({} MiB each), {} ms to open a session",
+          model,
+          total / (1024 * 1024),
+          sessions,
+          total / sessions / (1024 * 1024),
+          Math.round((Double) result.get("openMillisPerSession")));
+      return result;
+    } finally {
+      drivers.forEach(close);
+    }
+  }
+}
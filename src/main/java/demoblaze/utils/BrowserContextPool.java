@@ -0,0 +1,245 @@
+package demoblaze.utils;
+
+import demoblaze.config.Config;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * BrowserContextPool - Hosts many isolated sessions in one Chromium process. Each session is a
+ * browser context created with CDP {@code Target.createBrowserContext} (its own cookies, storage
+ * and cache, like an incognito profile) holding one page, and is handed out as an independent
+ * {@link WebDriver}. A new browser is started whenever every running one already hosts {@link
+ * Config#CONTEXTS_PER_BROWSER} contexts.
+ *
+ * <p>All contexts of a browser share its single WebDriver session: each handle switches the session
+ * to its own window before every command, and commands from different contexts of one browser run
+ * one at a time. DevTools is not available through a context handle, and window handle lists span
+ * the whole browser.
+ */
+public class BrowserContextPool {
+  private static final Logger logger = LoggerFactory.getLogger(BrowserContextPool.class);
+
+  private static final long WINDOW_LOOKUP_TIMEOUT_MILLIS = 5000;
+
+  private static final List<Host> hosts = new ArrayList<>();
+  private static final Set<WebDriver> hostDrivers =
+      Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+  // Keyed by identity: equals/hashCode on a context handle would be routed to the browser
+  private static final Map<WebDriver, Context> contexts =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
+  private BrowserContextPool() {
+    // Private constructor to prevent instantiation
+  }
+
+  /**
+   * Creates an isolated session in a browser of the given type with spare capacity, starting a
+   * browser if needed.
+   *
+   * @throws IllegalStateException if the browser does not support browser contexts
+   */
+  public static WebDriver acquire(String browser) {
+    Host host;
+    synchronized (hosts) {
+      host =
+          hosts.stream()
+              .filter(candidate -> candidate.browser.equals(browser))
+              .filter(candidate -> candidate.slots < Config.CONTEXTS_PER_BROWSER)
+              .findFirst()
+              .orElse(null);
+      if (host == null) {
+        host = new Host(browser, BrowserFactory.createDriver(browser));
+        hosts.add(host);
+        hostDrivers.add(host.driver);
+      }
+      // Taken before the lock is released, so concurrent callers cannot overfill this browser
+      host.slots++;
+    }
+    try {
+      Context context = host.newContext();
+      contexts.put(context.driver, context);
+      return context.driver;
+    } catch (RuntimeException e) {
+      freeSlot(host);
+      throw e;
+    }
+  }
+
+  /** Whether a driver is a browser context handed out by this pool. */
+  public static boolean isContext(WebDriver driver) {
+    return contexts.containsKey(driver);
+  }
+
+  /** Disposes a context, discarding its cookies, storage and windows. The browser keeps running. */
+  public static void release(WebDriver driver) {
+    Context context = contexts.remove(driver);
+    if (context != null) {
+      context.host.dispose(context);
+      freeSlot(context.host);
+    }
+  }
+
+  private static void freeSlot(Host host) {
+    synchronized (hosts) {
+      host.slots--;
+    }
+  }
+
+  /** Disposes every context and quits every host browser. Call once at the end of the suite. */
+  public static void quitAll() {
+    List<WebDriver> open;
+    synchronized (contexts) {
+      open = new ArrayList<>(contexts.keySet());
+    }
+    open.forEach(BrowserContextPool::release);
+    synchronized (hosts) {
+      hosts.forEach(Host::quit);
+      hosts.clear();
+      hostDrivers.clear();
+    }
+  }
+
+  /** Whether a driver is the session of a browser hosting contexts, rather than a test session. */
+  public static boolean isHost(WebDriver driver) {
+    return hostDrivers.contains(driver);
+  }
+
+  /** Number of contexts handed out and not yet released. */
+  public static int contextCount() {
+    return contexts.size();
+  }
+
+  /** One browser process with its WebDriver session and browser-level CDP connection. */
+  private static final class Host {
+    private final String browser;
+    private final WebDriver driver;
+    private final Connection connection;
+    private final List<Context> live = new ArrayList<>();
+    private String activeWindow;
+    // Contexts handed out or being created; guarded by the hosts lock
+    private int slots;
+
+    private Host(String browser, WebDriver driver) {
+      this.browser = browser;
+      this.driver = driver;
+      this.connection =
+          DevToolsUtils.openBrowserConnection(driver)
+              .orElseThrow(
+                  () -> {
+                    BrowserFactory.quitDriver(driver);
+                    return new IllegalStateException(
+                        "Browser contexts need Chrome or Edge (CDP), not " + browser);
+                  });
+      this.activeWindow = driver.getWindowHandle();
+    }
+
+    private synchronized Context newContext() {
+      Map<String, Object> created =
+          DevToolsUtils.send(
+              connection, "Target.createBrowserContext", Map.of("disposeOnDetach", false));
+      String contextId = (String) created.get("browserContextId");
+      Map<String, Object> target =
+          DevToolsUtils.send(
+              connection,
+              "Target.createTarget",
+              Map.of("url", "about:blank", "browserContextId", contextId));
+      String window = (String) target.get("targetId");
+      awaitWindow(window);
+      Context context = new Context(this, contextId, window);
+      live.add(context);
+      logger.info("Browser context {} created ({} in this browser)", contextId, live.size());
+      return context;
+    }
+
+    /** ChromeDriver exposes page targets as window handles once it has discovered them. */
+    private void awaitWindow(String window) {
+      long deadline = System.currentTimeMillis() + WINDOW_LOOKUP_TIMEOUT_MILLIS;
+      while (!driver.getWindowHandles().contains(window)) {
+        if (System.currentTimeMillis() > deadline) {
+          throw new IllegalStateException("Browser context window not visible to WebDriver");
+        }
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while creating browser context", e);
+        }
+      }
+    }
+
+    /** Switches the shared session to a context's window unless it is already there. */
+    private void activate(String window) {
+      if (!window.equals(activeWindow)) {
+        driver.switchTo().window(window);
+        activeWindow = window;
+      }
+    }
+
+    private synchronized void dispose(Context context) {
+      live.remove(context);
+      try {
+        DevToolsUtils.send(
+            connection,
+            "Target.disposeBrowserContext",
+            Map.of("browserContextId", context.contextId));
+      } catch (Exception e) {
+        logger.warn("Could not dispose browser context {}: {}", context.contextId, e.getMessage());
+      }
+      if (context.window.equals(activeWindow)) {
+        activeWindow = null;
+      }
+      logger.info("Browser context {} disposed", context.contextId);
+    }
+
+    private synchronized void quit() {
+      connection.close();
+      BrowserFactory.quitDriver(driver);
+    }
+  }
+
+  /** A browser context and the driver handle that routes commands to its window. */
+  private static final class Context extends WebDriverDecorator<WebDriver> {
+    private final Host host;
+    private final String contextId;
+    private final String window;
+    private final WebDriver driver;
+
+    private Context(Host host, String contextId, String window) {
+      this.host = host;
+      this.contextId = contextId;
+      this.window = window;
+      this.driver = decorate(host.driver);
+    }
+
+    @Override
+    public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return super.call(target, method, args);
+      }
+      if (target.getOriginal() == host.driver) {
+        if ("quit".equals(method.getName())) {
+          BrowserFactory.releaseDriver(driver);
+          return null;
+        }
+        if ("getDevTools".equals(method.getName())) {
+          throw new UnsupportedOperationException("DevTools is not available per browser context");
+        }
+      }
+      synchronized (host) {
+        host.activate(window);
+        return super.call(target, method, args);
+      }
+    }
+  }
+}
@@ -1,24 +1,59 @@
 package demoblaze.utils;
 
 import demoblaze.config.Config;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import org.htmlunit.BrowserVersion;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.UnexpectedAlertBehaviour;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.htmlunit.options.HtmlUnitDriverOptions;
+import org.openqa.selenium.htmlunit.options.HtmlUnitOption;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import org.openqa.selenium.remote.http.ClientConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * BrowserFactory - Responsible for creating and managing WebDriver instances. Follows Factory
  * design pattern and Single Responsibility principle. Supports Chrome, Firefox, and Edge browsers
- * with headless mode option.
+ * with headless mode option, plus the in-process HtmlUnit driver for cheap smoke runs. Drivers of
+ * different browsers can be open at the same time (see {@code -Dbrowsers}); recycled drivers are
+ * only handed out again for their own browser.
  */
 public class BrowserFactory {
   private static final Logger logger = LoggerFactory.getLogger(BrowserFactory.class);
 
+  private static final String LIFECYCLE_RECYCLE = "recycle";
+  private static final String LIFECYCLE_CONTEXTS = "contexts";
+  private static final String HTMLUNIT = "htmlunit";
+
+  // Scrubbed drivers waiting for the next test class, by browser, and how many classes each served
+  private static final Map<String, Deque<WebDriver>> idleDrivers = new ConcurrentHashMap<>();
+  private static final Map<WebDriver, Integer> driverUses = new ConcurrentHashMap<>();
+  // Browser of every driver handed out; by identity, since context handles route equals/hashCode
+  private static final Map<WebDriver, String> driverBrowsers =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
   private BrowserFactory() {
     // Private constructor to prevent instantiation
   }
@@ -29,91 +64,361 @@ public class BrowserFactory {
    * @return WebDriver instance
    */
   public static WebDriver createDriver() {
-    String browser = Config.BROWSER;
-    boolean headless = Config.HEADLESS;
+    return createDriver(Config.BROWSER);
+  }
 
-    logger.info("Initializing {} browser (Headless: {})", browser, headless);
+  /**
+   * Creates a WebDriver instance for the given browser with the configured headless mode and launch
+   * profile. A launch profile written for another browser is ignored.
+   *
+   * @return WebDriver instance
+   */
+  public static WebDriver createDriver(String browser) {
+    LaunchProfile profile =
+        LaunchProfile.configured()
+            .filter(
+                candidate ->
+                    candidate.getBrowser() == null || candidate.getBrowser().equals(browser))
+            .orElse(null);
+    return createDriver(browser, Config.HEADLESS, profile);
+  }
+
+  /**
+   * Creates a WebDriver instance for the given browser.
+   *
+   * @param profile launch profile replacing the built-in arguments, or null for the defaults
+   * @return WebDriver instance
+   */
+  public static WebDriver createDriver(String browser, boolean headless, LaunchProfile profile) {
+    logger.info(
+        "Initializing {} browser (Headless: {}, Profile: {})",
+        browser,
+        headless,
+        profile == null ? "default" : profile.getName());
 
     WebDriver driver;
 
     switch (browser) {
       case "firefox":
-        driver = createFirefoxDriver(headless);
+        driver = createFirefoxDriver(headless, profile);
         break;
       case "edge":
-        driver = createEdgeDriver(headless);
+        driver = createEdgeDriver(headless, profile);
+        break;
+      case HTMLUNIT:
+        driver = createHtmlUnitDriver(profile);
         break;
       case "chrome":
       default:
-        driver = createChromeDriver(headless);
+        driver = createChromeDriver(headless, profile);
         break;
     }
 
     configureDriver(driver);
+    driverBrowsers.put(driver, browser);
+    EmulationProfile.configured().ifPresent(emulation -> emulation.apply(driver));
+    if (Config.ALERT_BIDI && !HTMLUNIT.equals(browser)) {
+      AlertRecorder.attach(driver);
+    }
     logger.info("WebDriver initialized successfully");
     return driver;
   }
 
+  /** HTTP client settings for a driver service; times every command when live metrics are on. */
+  private static ClientConfig clientConfig() {
+    ClientConfig config = ClientConfig.defaultConfig();
+    return LiveMetrics.isEnabled() ? config.withFilter(LiveMetrics.commandTimer()) : config;
+  }
+
   /** Creates Chrome WebDriver with options. */
-  private static WebDriver createChromeDriver(boolean headless) {
+  private static WebDriver createChromeDriver(boolean headless, LaunchProfile profile) {
     ChromeOptions options = new ChromeOptions();
 
-    if (headless) {
-      options.addArguments("--headless");
+    if (profile != null) {
+      applyProfile(options, profile, headless);
+    } else {
+      if (headless) {
+        options.addArguments("--headless");
+      }
+      options.addArguments(
+          "--start-maximized",
+          "--disable-blink-features=AutomationControlled",
+          "--disable-extensions",
+          "--disable-gpu");
     }
+    configureBiDi(options);
+    configureAssetCache(options);
 
-    options.addArguments(
-        "--start-maximized",
-        "--disable-blink-features=AutomationControlled",
-        "--disable-extensions",
-        "--disable-gpu");
-
-    return new ChromeDriver(options);
+    ChromeDriverService service = ChromeDriverService.createDefaultService();
+    WebDriver driver = new ChromeDriver(service, options, clientConfig());
+    DriverRegistry.register(driver, service);
+    return driver;
   }
 
   /** Creates Firefox WebDriver with options. */
-  private static WebDriver createFirefoxDriver(boolean headless) {
+  private static WebDriver createFirefoxDriver(boolean headless, LaunchProfile profile) {
     FirefoxOptions options = new FirefoxOptions();
 
-    if (headless) {
+    if (headless && (profile == null || !profile.isHeadless())) {
       options.addArguments("--headless");
     }
 
-    options.addArguments("--width=1920", "--height=1080");
+    if (profile != null) {
+      options.addArguments(profile.getArguments());
+      profile.getPreferences().forEach(options::addPreference);
+    } else {
+      options.addArguments("--width=1920", "--height=1080");
+    }
+    configureBiDi(options);
+    configureAssetCache(options);
 
-    return new FirefoxDriver(options);
+    GeckoDriverService service = GeckoDriverService.createDefaultService();
+    WebDriver driver = new FirefoxDriver(service, options, clientConfig());
+    DriverRegistry.register(driver, service);
+    return driver;
   }
 
   /** Creates Edge WebDriver with options. */
-  private static WebDriver createEdgeDriver(boolean headless) {
+  private static WebDriver createEdgeDriver(boolean headless, LaunchProfile profile) {
     EdgeOptions options = new EdgeOptions();
 
-    if (headless) {
+    if (profile != null) {
+      applyProfile(options, profile, headless);
+    } else {
+      if (headless) {
+        options.addArguments("--headless");
+      }
+      options.addArguments("--start-maximized");
+    }
+    configureBiDi(options);
+    configureAssetCache(options);
+
+    EdgeDriverService service = EdgeDriverService.createDefaultService();
+    WebDriver driver = new EdgeDriver(service, options, clientConfig());
+    DriverRegistry.register(driver, service);
+    return driver;
+  }
+
+  /**
+   * Creates an in-process HtmlUnit driver emulating Chrome, with JavaScript enabled. It is always
+   * headless and has no DevTools or BiDi, so launch profiles, HAR capture and BiDi alerts do not
+   * apply. Images are not downloaded and page script errors are logged rather than thrown, as a
+   * real browser would.
+   */
+  private static WebDriver createHtmlUnitDriver(LaunchProfile profile) {
+    if (profile != null) {
+      logger.warn("Launch profile {} ignored by HtmlUnit", profile.getName());
+    }
+    HtmlUnitDriverOptions options = new HtmlUnitDriverOptions(BrowserVersion.CHROME, true);
+    options.setDownloadImages(false);
+    options.setCapability(HtmlUnitOption.THROW_EXCEPTION_ON_SCRIPT_ERROR.getCapabilityKey(), false);
+    options.setCapability(HtmlUnitOption.SCREEN_WIDTH.getCapabilityKey(), 1920);
+    options.setCapability(HtmlUnitOption.SCREEN_HEIGHT.getCapabilityKey(), 1080);
+    if (configureAssetCache(options)) {
+      options.setCapability(HtmlUnitOption.USE_INSECURE_SSL.getCapabilityKey(), true);
+    }
+
+    HtmlUnitDriver driver = new HtmlUnitDriver(options);
+    DriverRegistry.register(driver, null);
+    // Wide enough that the navbar is not collapsed behind the Bootstrap toggle
+    driver.manage().window().setSize(new Dimension(1920, 1080));
+    return driver;
+  }
+
+  /** Applies a launch profile's arguments and preferences to Chrome or Edge options. */
+  private static void applyProfile(
+      ChromiumOptions<?> options, LaunchProfile profile, boolean headless) {
+    if (headless && !profile.isHeadless()) {
       options.addArguments("--headless");
     }
+    options.addArguments(profile.getArguments());
+    if (!profile.getPreferences().isEmpty()) {
+      options.setExperimentalOption("prefs", profile.getPreferences());
+    }
+  }
 
-    options.addArguments("--start-maximized");
+  /**
+   * Enables WebDriver BiDi when alerts are recorded from events. Unhandled prompts are left open
+   * for the recorder's policy instead of being dismissed by the next classic command.
+   */
+  private static void configureBiDi(AbstractDriverOptions<?> options) {
+    if (Config.ALERT_BIDI) {
+      options.setCapability("webSocketUrl", true);
+      options.setUnhandledPromptBehaviour(UnexpectedAlertBehaviour.IGNORE);
+    }
+  }
 
-    return new EdgeDriver(options);
+  /**
+   * Routes the browser through the shared {@link AssetCacheProxy} when {@code -Dassets.cache=true},
+   * accepting the proxy's self-signed certificate for the HTTPS it intercepts.
+   *
+   * @return true if the proxy was configured
+   */
+  private static boolean configureAssetCache(AbstractDriverOptions<?> options) {
+    Optional<AssetCacheProxy> proxy = AssetCacheProxy.shared();
+    proxy.ifPresent(
+        cache -> {
+          options.setProxy(new Proxy().setHttpProxy(cache.address()).setSslProxy(cache.address()));
+          options.setAcceptInsecureCerts(true);
+        });
+    return proxy.isPresent();
   }
 
-  /** Configures driver timeouts and settings. */
+  /**
+   * Configures driver timeouts and settings. Adaptive waits turn the implicit wait off, since every
+   * element lookup inside an explicit wait would otherwise block for the full implicit timeout.
+   */
   private static void configureDriver(WebDriver driver) {
+    int implicitWait = WaitHistory.isAdaptive() ? 0 : Config.IMPLICIT_WAIT;
     driver
         .manage()
         .timeouts()
-        .implicitlyWait(java.time.Duration.ofSeconds(Config.IMPLICIT_WAIT))
+        .implicitlyWait(java.time.Duration.ofSeconds(implicitWait))
         .pageLoadTimeout(java.time.Duration.ofSeconds(Config.PAGE_LOAD_TIMEOUT));
   }
 
+  /**
+   * Hands out a driver of the configured browser for a test class.
+   *
+   * @return WebDriver instance
+   */
+  public static WebDriver acquireDriver() {
+    return acquireDriver(Config.BROWSER);
+  }
+
+  /**
+   * Hands out a driver of the given browser for a test class. In "recycle" lifecycle mode a
+   * previously scrubbed driver of that browser is reused when one is idle; in "contexts" mode the
+   * driver is a new browser context in a shared browser (see {@link BrowserContextPool}); otherwise
+   * a new driver is created.
+   *
+   * @return WebDriver instance
+   */
+  public static WebDriver acquireDriver(String browser) {
+    if (LIFECYCLE_CONTEXTS.equals(Config.DRIVER_LIFECYCLE)) {
+      WebDriver context = BrowserContextPool.acquire(browser);
+      driverBrowsers.put(context, browser);
+      return context;
+    }
+    if (LIFECYCLE_RECYCLE.equals(Config.DRIVER_LIFECYCLE)) {
+      WebDriver driver = idle(browser).pollFirst();
+      if (driver != null) {
+        int uses = driverUses.merge(driver, 1, Integer::sum);
+        logger.info("Reusing recycled WebDriver (use {} of {})", uses, Config.DRIVER_MAX_REUSE);
+        return driver;
+      }
+    }
+    WebDriver driver = createDriver(browser);
+    driverUses.put(driver, 1);
+    return driver;
+  }
+
+  /**
+   * Browser a driver was created for, e.g. to tag results and metrics in a browser matrix. Falls
+   * back to the configured browser for drivers not created here.
+   */
+  public static String browserOf(WebDriver driver) {
+    String browser = driver == null ? null : driverBrowsers.get(driver);
+    return browser == null ? Config.BROWSER : browser;
+  }
+
+  /**
+   * Sessions handed out and not yet released, for {@link LiveMetrics}. Browser contexts count,
+   * including those acquired from {@link BrowserContextPool} directly; the browsers hosting them
+   * and drivers parked for reuse do not.
+   */
+  static int activeSessions() {
+    List<WebDriver> drivers;
+    synchronized (driverBrowsers) {
+      drivers = new ArrayList<>(driverBrowsers.keySet());
+    }
+    long standalone =
+        drivers.stream()
+            .filter(
+                driver ->
+                    !BrowserContextPool.isContext(driver) && !BrowserContextPool.isHost(driver))
+            .count();
+    return (int) Math.max(0, standalone - idleSessions()) + BrowserContextPool.contextCount();
+  }
+
+  /** Drivers parked for reuse, for {@link LiveMetrics}. */
+  static int idleSessions() {
+    return idleDrivers.values().stream().mapToInt(Deque::size).sum();
+  }
+
+  private static Deque<WebDriver> idle(String browser) {
+    return idleDrivers.computeIfAbsent(browser, key -> new ConcurrentLinkedDeque<>());
+  }
+
+  /**
+   * Returns a driver at the end of a test class. In "recycle" lifecycle mode the session is
+   * scrubbed and parked for reuse, falling back to a full quit if scrubbing fails, the driver has
+   * reached {@link Config#DRIVER_MAX_REUSE}, or its browser has outgrown the resource limits (see
+   * {@link ResourceMonitor}). In "restart" mode the driver is always quit.
+   */
+  public static void releaseDriver(WebDriver driver) {
+    if (driver == null) {
+      return;
+    }
+    if (BrowserContextPool.isContext(driver)) {
+      driverBrowsers.remove(driver);
+      BrowserContextPool.release(driver);
+      return;
+    }
+    if (!LIFECYCLE_RECYCLE.equals(Config.DRIVER_LIFECYCLE)) {
+      driverUses.remove(driver);
+      quitDriver(driver);
+      return;
+    }
+
+    int uses = driverUses.getOrDefault(driver, Config.DRIVER_MAX_REUSE);
+    String exceeded =
+        uses < Config.DRIVER_MAX_REUSE ? ResourceMonitor.exceededLimit(driver).orElse(null) : null;
+    if (uses >= Config.DRIVER_MAX_REUSE) {
+      logger.info("WebDriver reached reuse limit ({}), restarting", uses);
+    } else if (exceeded != null) {
+      logger.info("WebDriver exceeded resource limit ({}), restarting", exceeded);
+    } else if (SessionScrubber.scrub(driver)) {
+      idle(browserOf(driver)).offerFirst(driver);
+      logger.info("WebDriver scrubbed and parked for reuse");
+      return;
+    } else {
+      logger.warn("WebDriver could not be scrubbed clean, restarting");
+    }
+    driverUses.remove(driver);
+    quitDriver(driver);
+  }
+
+  /**
+   * Quits every driver parked for reuse and every browser hosting contexts. Call once at the end of
+   * the suite.
+   */
+  public static void quitIdleDrivers() {
+    BrowserContextPool.quitAll();
+    for (Deque<WebDriver> idle : idleDrivers.values()) {
+      WebDriver driver = idle.pollFirst();
+      while (driver != null) {
+        driverUses.remove(driver);
+        quitDriver(driver);
+        driver = idle.pollFirst();
+      }
+    }
+  }
+
   /** Safely quits the WebDriver instance. */
   public static void quitDriver(WebDriver driver) {
     if (driver != null) {
+      AlertRecorder.detach(driver);
+      ResourceMonitor.forget(driver);
+      PerformanceMonitor.forget(driver);
       try {
         driver.quit();
         logger.info("WebDriver closed successfully");
       } catch (Exception e) {
         logger.error("Error closing WebDriver: ", e);
+      } finally {
+        DriverRegistry.unregister(driver);
+        driverBrowsers.remove(driver);
       }
     }
   }
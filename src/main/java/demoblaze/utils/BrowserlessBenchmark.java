@@ -0,0 +1,267 @@
+package demoblaze.utils;
+
+import com.google.gson.GsonBuilder;
+import demoblaze.config.Config;
+import demoblaze.pageobjects.CartPage;
+import demoblaze.pageobjects.CheckoutPage;
+import demoblaze.pageobjects.HeaderComponent;
+import demoblaze.pageobjects.HomePage;
+import demoblaze.pageobjects.LoginPage;
+import demoblaze.pageobjects.ProductPage;
+import demoblaze.testdata.TestData;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * BrowserlessBenchmark - Runs the smoke flows (navigation, catalog, product, cart, login and
+ * checkout modals) through the page objects on each browser in {@code -Dbenchmark.browsers}, and
+ * reports which flows work per browser together with startup time, per-flow latency and memory.
+ * Writes {@code target/benchmark/browserless.json} and a markdown compatibility matrix next to it.
+ *
+ * <p>Memory is that of the driver and browser processes started by this JVM (see {@link
+ * ProcessTree}), plus the JVM heap growth during the session, which is where the in-process
+ * HtmlUnit driver lives.
+ *
+ * <p>Run with: {@code mvn compile exec:java -Dexec.mainClass=demoblaze.utils.BrowserlessBenchmark
+ * -Dbenchmark.browsers=htmlunit,chrome -Dheadless=true -Dbenchmark.iterations=5}
+ */
+public class BrowserlessBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(BrowserlessBenchmark.class);
+
+  private static final Path OUTPUT_DIR = Paths.get("target", "benchmark");
+
+  private BrowserlessBenchmark() {
+    // Private constructor to prevent instantiation
+  }
+
+  /** Smoke flows in execution order; each one continues from the page the previous left open. */
+  static Map<String, Consumer<WebDriver>> flows() {
+    Map<String, Consumer<WebDriver>> flows = new LinkedHashMap<>();
+    flows.put(
+        "home page",
+        driver -> {
+          HomePage homePage = new HomePage(driver);
+          homePage.navigateToHomePage();
+          check(homePage.isHomePageLoaded(), "home page not loaded");
+        });
+    flows.put(
+        "category filter",
+        driver -> {
+          HomePage homePage = new HomePage(driver);
+          homePage.navigateToCategory(TestData.Categories.PHONES);
+          check(homePage.isProductAvailable(TestData.Products.SAMSUNG), "product not listed");
+        });
+    flows.put(
+        "product page",
+        driver -> {
+          new HomePage(driver).selectProductByName(TestData.Products.SAMSUNG);
+          ProductPage productPage = new ProductPage(driver);
+          check(
+              TestData.Products.SAMSUNG.equalsIgnoreCase(productPage.getProductTitle()),
+              "wrong product title");
+        });
+    flows.put("add to cart (alert)", driver -> new ProductPage(driver).addProductToCart());
+    flows.put(
+        "cart contents",
+        driver -> {
+          new HeaderComponent(driver).clickCart();
+          check(new CartPage(driver).isProductInCart(TestData.Products.SAMSUNG), "cart is empty");
+        });
+    flows.put(
+        "checkout form (modal)",
+        driver -> {
+          new CartPage(driver).clickPlaceOrderButton();
+          new CheckoutPage(driver)
+              .fillCheckoutForm(
+                  TestData.Order.NAME,
+                  TestData.Order.COUNTRY,
+                  TestData.Order.CITY,
+                  TestData.Order.CARD_NUMBER,
+                  TestData.Order.MONTH,
+                  TestData.Order.YEAR);
+        });
+    flows.put(
+        "login modal",
+        driver -> {
+          new HomePage(driver).navigateToHomePage();
+          new HeaderComponent(driver).clickLogin();
+          LoginPage loginPage = new LoginPage(driver);
+          loginPage.waitForLoginModal();
+          loginPage.closeLoginModal();
+        });
+    return flows;
+  }
+
+  public static void main(String[] args) throws IOException {
+    List<String> browsers =
+        Arrays.asList(System.getProperty("benchmark.browsers", "htmlunit,chrome").split(","));
+    int iterations = Integer.getInteger("benchmark.iterations", 3);
+    Map<String, Consumer<WebDriver>> flows = flows();
+
+    List<Map<String, Object>> report = new ArrayList<>();
+    for (String browser : browsers) {
+      report.add(measure(browser.trim(), flows, iterations));
+    }
+
+    Files.createDirectories(OUTPUT_DIR);
+    Path json = OUTPUT_DIR.resolve("browserless.json");
+    Files.write(
+        json,
+        new GsonBuilder()
+            .setPrettyPrinting()
+            .serializeSpecialFloatingPointValues()
+            .create()
+            .toJson(report)
+            .getBytes(StandardCharsets.UTF_8));
+    Path matrix = OUTPUT_DIR.resolve("compatibility.md");
+    Files.write(matrix, compatibilityMatrix(flows, report).getBytes(StandardCharsets.UTF_8));
+    logger.info("Benchmark written to {} (compatibility matrix: {})", json, matrix);
+  }
+
+  /**
+   * Runs every flow on one browser several times.
+   *
+   * @return medians of startup, per-flow latency and memory, and each flow's pass count
+   */
+  private static Map<String, Object> measure(
+      String browser, Map<String, Consumer<WebDriver>> flows, int iterations) {
+    List<Double> startups = new ArrayList<>();
+    List<Double> memory = new ArrayList<>();
+    Map<String, List<Double>> latencies = new LinkedHashMap<>();
+    Map<String, Integer> passes = new LinkedHashMap<>();
+    Map<String, String> failures = new LinkedHashMap<>();
+    flows
+        .keySet()
+        .forEach(
+            flow -> {
+              latencies.put(flow, new ArrayList<>());
+              passes.put(flow, 0);
+            });
+
+    for (int i = 0; i < iterations; i++) {
+      long heapBefore = usedHeap();
+      WebDriver driver = null;
+      try {
+        long start = System.nanoTime();
+        driver = BrowserFactory.createDriver(browser, Config.HEADLESS, null);
+        startups.add((System.nanoTime() - start) / 1e6);
+        for (Map.Entry<String, Consumer<WebDriver>> flow : flows.entrySet()) {
+          long flowStart = System.nanoTime();
+          try {
+            flow.getValue().accept(driver);
+            latencies.get(flow.getKey()).add((System.nanoTime() - flowStart) / 1e6);
+            passes.merge(flow.getKey(), 1, Integer::sum);
+          } catch (Exception | AssertionError e) {
+            failures.putIfAbsent(
+                flow.getKey(), e.getClass().getSimpleName() + ": " + e.getMessage());
+            logger.warn("{}: flow '{}' failed: {}", browser, flow.getKey(), e.getMessage());
+          }
+        }
+        memory.add((double) (ProcessTree.memoryBytes() + Math.max(0, usedHeap() - heapBefore)));
+      } catch (Exception e) {
+        logger.error("{} could not be started: {}", browser, e.getMessage());
+        break;
+      } finally {
+        BrowserFactory.quitDriver(driver);
+      }
+    }
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("browser", browser);
+    result.put("sessions", startups.size());
+    result.put("startupMillis", median(startups));
+    result.put("memoryBytes", median(memory));
+    Map<String, Object> flowResults = new LinkedHashMap<>();
+    for (String flow : flows.keySet()) {
+      Map<String, Object> flowResult = new LinkedHashMap<>();
+      flowResult.put("passed", passes.get(flow));
+      flowResult.put("medianMillis", median(latencies.get(flow)));
+      flowResult.put("firstFailure", failures.get(flow));
+      flowResults.put(flow, flowResult);
+    }
+    result.put("flows", flowResults);
+    logger.info(
+        "{}: startup {} ms, memory {} MiB over {} sessions",
+        browser,
+        Math.round(median(startups)),
+        Math.round(median(memory) / (1024 * 1024)),
+        startups.size());
+    return result;
+  }
+
+  /** Renders flows against browsers: "pass", "fail" or "n/p" (passed n of p sessions). */
+  @SuppressWarnings("unchecked")
+  private static String compatibilityMatrix(
+      Map<String, Consumer<WebDriver>> flows, List<Map<String, Object>> report) {
+    StringBuilder markdown = new StringBuilder("| Flow |");
+    StringBuilder separator = new StringBuilder("|------|");
+    for (Map<String, Object> browser : report) {
+      markdown.append(' ').append(browser.get("browser")).append(" |");
+      separator.append("------|");
+    }
+    markdown.append('\n').append(separator).append('\n');
+    for (String flow : flows.keySet()) {
+      markdown.append("| ").append(flow).append(" |");
+      for (Map<String, Object> browser : report) {
+        int sessions = (Integer) browser.get("sessions");
+        Map<String, Object> result =
+            (Map<String, Object>) ((Map<String, Object>) browser.get("flows")).get(flow);
+        int passed = (Integer) result.get("passed");
+        String cell;
+        if (sessions > 0 && passed == sessions) {
+          cell = String.format("pass (%.0f ms)", (Double) result.get("medianMillis"));
+        } else if (passed == 0) {
+          cell = "fail";
+        } else {
+          cell = passed + "/" + sessions;
+        }
+        markdown.append(' ').append(cell).append(" |");
+      }
+      markdown.append('\n');
+    }
+    markdown.append("| **startup** |");
+    report.forEach(
+        browser ->
+            markdown.append(String.format(" %.0f ms |", (Double) browser.get("startupMillis"))));
+    markdown.append("\n| **memory** |");
+    report.forEach(
+        browser ->
+            markdown.append(
+                String.format(" %.0f MiB |", (Double) browser.get("memoryBytes") / (1024 * 1024))));
+    return markdown.append('\n').toString();
+  }
+
+  private static void check(boolean condition, String failure) {
+    if (!condition) {
+      throw new IllegalStateException(failure);
+    }
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static double median(List<Double> values) {
+    if (values.isEmpty()) {
+      return Double.NaN;
+    }
+    List<Double> sorted = new ArrayList<>(values);
+    Collections.sort(sorted);
+    return sorted.get(sorted.size() / 2);
+  }
+}
@@ -0,0 +1,102 @@
+package demoblaze.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.SeleniumCdpConnection;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DevToolsUtils - Thin, version-independent access to the Chrome DevTools Protocol. Commands and
+ * events are addressed by their raw CDP names and exchanged as plain maps, so the framework does
+ * not depend on a specific selenium-devtools-vNNN module matching the installed browser.
+ */
+public class DevToolsUtils {
+  private static final Logger logger = LoggerFactory.getLogger(DevToolsUtils.class);
+
+  private static final Duration BROWSER_COMMAND_TIMEOUT = Duration.ofSeconds(30);
+
+  private DevToolsUtils() {
+    // Private constructor to prevent instantiation
+  }
+
+  /**
+   * Opens a DevTools session for the driver.
+   *
+   * @return DevTools with an attached session, or empty if the browser does not support CDP
+   */
+  public static Optional<DevTools> open(WebDriver driver) {
+    if (!(driver instanceof HasDevTools)) {
+      logger.debug("Driver does not support DevTools: {}", driver.getClass().getSimpleName());
+      return Optional.empty();
+    }
+    try {
+      DevTools devTools = ((HasDevTools) driver).getDevTools();
+      devTools.createSessionIfThereIsNotOne();
+      return Optional.of(devTools);
+    } catch (Exception e) {
+      logger.warn("Could not open DevTools session: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Opens a separate connection to the browser target itself, for browser-wide commands such as
+   * {@code Target.createBrowserContext} that page sessions may not issue.
+   *
+   * @return the connection, or empty if the browser does not expose a CDP endpoint
+   */
+  public static Optional<Connection> openBrowserConnection(WebDriver driver) {
+    if (!(driver instanceof HasCapabilities)) {
+      return Optional.empty();
+    }
+    try {
+      return SeleniumCdpConnection.create(
+          ((HasCapabilities) driver).getCapabilities(), ClientConfig.defaultConfig());
+    } catch (Exception e) {
+      logger.warn("Could not open browser DevTools connection: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Sends a raw CDP command on a browser connection and returns its result as a map. */
+  public static Map<String, Object> send(
+      Connection connection, String method, Map<String, Object> params) {
+    return connection.sendAndWait(
+        null, new Command<>(method, params, Json.MAP_TYPE), BROWSER_COMMAND_TIMEOUT);
+  }
+
+  /** Sends a raw CDP command and returns its result as a map. */
+  public static Map<String, Object> send(
+      DevTools devTools, String method, Map<String, Object> params) {
+    return devTools.send(new Command<>(method, params, Json.MAP_TYPE));
+  }
+
+  /** Creates a raw CDP event whose payload is decoded into a map. */
+  public static Event<Map<String, Object>> event(String method) {
+    return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+  }
+
+  /** Reads a nested map value, returning an empty map if absent. */
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> child(Map<String, Object> map, String key) {
+    Object value = map.get(key);
+    return value instanceof Map ? (Map<String, Object>) value : Map.of();
+  }
+
+  /** Reads a numeric value, returning the fallback if absent. */
+  public static double number(Map<String, Object> map, String key, double fallback) {
+    Object value = map.get(key);
+    return value instanceof Number ? ((Number) value).doubleValue() : fallback;
+  }
+}
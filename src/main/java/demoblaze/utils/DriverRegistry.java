@@ -0,0 +1,279 @@
+package demoblaze.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DriverRegistry - Tracks every driver this JVM creates together with its driver service process
+ * (chromedriver, msedgedriver, geckodriver) and the browser processes below it, so they are not
+ * left running when teardown is skipped:
+ *
+ * <ul>
+ *   <li>a JVM shutdown hook quits every driver still registered and kills whatever processes
+ *       survive the quit;
+ *   <li>the tracked processes are also written to {@link Config#DRIVER_REGISTRY_DIR}, one file per
+ *       JVM, and the first registration of a run kills the processes listed by earlier JVMs that
+ *       are no longer alive (e.g. killed with SIGKILL or by a CI timeout).
+ * </ul>
+ *
+ * Processes are identified by PID and start time, so a PID reused by an unrelated process is never
+ * killed.
+ */
+public class DriverRegistry {
+  private static final Logger logger = LoggerFactory.getLogger(DriverRegistry.class);
+
+  private static final Gson gson = new Gson();
+  private static final long QUIT_TIMEOUT_SECONDS = 15;
+
+  private static final Map<WebDriver, List<TrackedProcess>> drivers = new LinkedHashMap<>();
+  private static final TrackedProcess OWNER = TrackedProcess.of(ProcessHandle.current());
+
+  private static boolean initialized;
+
+  private DriverRegistry() {
+    // Private constructor to prevent instantiation
+  }
+
+  /** A process identified by PID and start time. */
+  private static final class TrackedProcess {
+    private final long pid;
+    private final long startMillis;
+    private final String command;
+
+    private TrackedProcess(long pid, long startMillis, String command) {
+      this.pid = pid;
+      this.startMillis = startMillis;
+      this.command = command;
+    }
+
+    private static TrackedProcess of(ProcessHandle handle) {
+      ProcessHandle.Info info = handle.info();
+      return new TrackedProcess(
+          handle.pid(),
+          info.startInstant().map(Instant::toEpochMilli).orElse(0L),
+          info.command().orElse(""));
+    }
+
+    /** The live process, if it is still the one that was tracked. */
+    private Optional<ProcessHandle> live() {
+      return ProcessHandle.of(pid)
+          .filter(ProcessHandle::isAlive)
+          .filter(
+              handle ->
+                  startMillis != 0
+                      && handle
+                          .info()
+                          .startInstant()
+                          .map(start -> start.toEpochMilli() == startMillis)
+                          .orElse(false));
+    }
+  }
+
+  /** Contents of one JVM's registry file. */
+  private static final class Entry {
+    private TrackedProcess owner;
+    private List<TrackedProcess> processes;
+  }
+
+  /**
+   * Registers a newly created driver. The first call of the run reaps orphans of earlier runs and
+   * installs the shutdown hook.
+   *
+   * @param service the service that launched the driver process, or null for in-process drivers
+   */
+  public static void register(WebDriver driver, DriverService service) {
+    List<TrackedProcess> processes =
+        findServiceProcess(service)
+            .map(
+                root ->
+                    Stream.concat(Stream.of(root), root.descendants())
+                        .map(TrackedProcess::of)
+                        .collect(Collectors.toList()))
+            .orElse(List.of());
+    synchronized (DriverRegistry.class) {
+      if (!initialized) {
+        initialized = true;
+        reapOrphans();
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread(DriverRegistry::shutdown, "driver-registry-shutdown"));
+      }
+      drivers.put(driver, processes);
+      persist();
+    }
+    logger.debug("Registered driver with {} tracked processes", processes.size());
+  }
+
+  /** Forgets a driver that has been quit. */
+  public static synchronized void unregister(WebDriver driver) {
+    if (drivers.remove(driver) != null) {
+      persist();
+    }
+  }
+
+  /**
+   * Kills the driver and browser processes recorded by earlier JVMs that are no longer running.
+   *
+   * @return number of processes killed
+   */
+  public static synchronized int reapOrphans() {
+    Path directory = Paths.get(Config.DRIVER_REGISTRY_DIR);
+    if (!Files.isDirectory(directory)) {
+      return 0;
+    }
+    int runs = 0;
+    Set<ProcessHandle> orphans = new LinkedHashSet<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+      for (Path file : files) {
+        Entry entry = read(file);
+        if (entry != null && entry.owner != null && entry.owner.live().isPresent()) {
+          continue;
+        }
+        if (entry != null && entry.processes != null) {
+          for (TrackedProcess process : entry.processes) {
+            process
+                .live()
+                .ifPresent(
+                    handle -> {
+                      orphans.add(handle);
+                      handle.descendants().forEach(orphans::add);
+                    });
+          }
+        }
+        runs++;
+        Files.deleteIfExists(file);
+      }
+    } catch (IOException e) {
+      logger.warn("Could not scan driver registry {}: {}", directory, e.getMessage());
+    }
+    if (orphans.isEmpty()) {
+      return 0;
+    }
+    long memory = orphans.stream().mapToLong(handle -> ProcessTree.memoryBytes(handle.pid())).sum();
+    orphans.forEach(ProcessHandle::destroyForcibly);
+    logger.warn(
+        "Killed {} orphaned driver/browser processes from {} earlier runs, reclaiming {} MiB",
+        orphans.size(),
+        runs,
+        memory / (1024 * 1024));
+    return orphans.size();
+  }
+
+  /** Quits every driver still registered, then kills the processes that outlived the quit. */
+  private static void shutdown() {
+    List<WebDriver> open;
+    List<TrackedProcess> processes = new ArrayList<>();
+    synchronized (DriverRegistry.class) {
+      open = new ArrayList<>(drivers.keySet());
+      drivers.values().forEach(processes::addAll);
+    }
+    if (!open.isEmpty()) {
+      logger.warn("{} drivers still open at JVM shutdown, quitting them", open.size());
+      try {
+        CompletableFuture.runAsync(() -> open.forEach(DriverRegistry::quitQuietly))
+            .get(QUIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      } catch (Exception e) {
+        logger.warn("Drivers did not quit within {} s: {}", QUIT_TIMEOUT_SECONDS, e.getMessage());
+      }
+    }
+    int killed = 0;
+    for (TrackedProcess process : processes) {
+      Optional<ProcessHandle> handle = process.live();
+      if (handle.isPresent()) {
+        handle.get().descendants().forEach(ProcessHandle::destroyForcibly);
+        handle.get().destroyForcibly();
+        killed++;
+      }
+    }
+    if (killed > 0) {
+      logger.warn("Killed {} driver/browser processes left after quit", killed);
+    }
+    try {
+      Files.deleteIfExists(registryFile());
+    } catch (IOException e) {
+      logger.debug("Could not delete driver registry file: {}", e.getMessage());
+    }
+  }
+
+  private static void quitQuietly(WebDriver driver) {
+    try {
+      driver.quit();
+    } catch (Exception e) {
+      logger.debug("Error quitting driver at shutdown: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Finds the service's process among this JVM's children by the port it was told to listen on. The
+   * service does not expose its process, and several may be starting concurrently.
+   */
+  private static Optional<ProcessHandle> findServiceProcess(DriverService service) {
+    if (service == null || !service.isRunning()) {
+      return Optional.empty();
+    }
+    String port = String.valueOf(service.getUrl().getPort());
+    return ProcessHandle.current()
+        .children()
+        .filter(
+            child -> {
+              String arguments = String.join(" ", child.info().arguments().orElse(new String[0]));
+              return arguments.contains("--port=" + port) || arguments.contains("--port " + port);
+            })
+        .findFirst();
+  }
+
+  /** Rewrites this JVM's registry file, or removes it when nothing is tracked. */
+  private static void persist() {
+    Path file = registryFile();
+    Entry entry = new Entry();
+    entry.owner = OWNER;
+    entry.processes =
+        drivers.values().stream().flatMap(Collection::stream).collect(Collectors.toList());
+    try {
+      if (entry.processes.isEmpty()) {
+        Files.deleteIfExists(file);
+      } else {
+        Files.createDirectories(file.getParent());
+        Files.write(file, gson.toJson(entry).getBytes(StandardCharsets.UTF_8));
+      }
+    } catch (IOException e) {
+      logger.warn("Could not update driver registry {}: {}", file, e.getMessage());
+    }
+  }
+
+  private static Entry read(Path file) {
+    try {
+      return gson.fromJson(Files.readString(file), Entry.class);
+    } catch (IOException | JsonParseException e) {
+      logger.debug("Ignoring unreadable driver registry file {}: {}", file, e.getMessage());
+      return null;
+    }
+  }
+
+  private static Path registryFile() {
+    return Paths.get(Config.DRIVER_REGISTRY_DIR, OWNER.pid + ".json");
+  }
+}
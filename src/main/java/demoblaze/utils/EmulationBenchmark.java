@@ -0,0 +1,149 @@
+package demoblaze.utils;
+
+import com.google.gson.GsonBuilder;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * EmulationBenchmark - Runs the smoke flows of {@link BrowserlessBenchmark} under each emulation
+ * profile in {@code -Dbenchmark.profiles} and compares the step timings, so slow-path regressions
+ * show up as steps whose time grows more than the others under throttling. Each profile's median
+ * step times are reported together with their slowdown against the first profile. Writes {@code
+ * target/benchmark/emulation-profiles.json} and a markdown table next to it.
+ *
+ * <p>Leave {@code -Demulation.profile} unset; the benchmark applies each profile itself. Run with:
+ * {@code mvn compile exec:java -Dexec.mainClass=demoblaze.utils.EmulationBenchmark -Dbrowser=chrome
+ * -Dheadless=true -Dbenchmark.profiles=none,fast-3g,cpu-4x,mobile -Dbenchmark.iterations=3}
+ */
+public class EmulationBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(EmulationBenchmark.class);
+
+  private static final Path OUTPUT_DIR = Paths.get("target", "benchmark");
+
+  private EmulationBenchmark() {
+    // Private constructor to prevent instantiation
+  }
+
+  public static void main(String[] args) throws IOException {
+    String[] profiles = System.getProperty("benchmark.profiles", "none,fast-3g,cpu-4x").split(",");
+    int iterations = Integer.getInteger("benchmark.iterations", 3);
+    Map<String, Consumer<WebDriver>> flows = BrowserlessBenchmark.flows();
+
+    Map<String, Map<String, Double>> timings = new LinkedHashMap<>();
+    for (String name : profiles) {
+      EmulationProfile profile = EmulationProfile.named(name);
+      timings.put(profile.getName(), measure(profile, flows, iterations));
+    }
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("browser", Config.BROWSER);
+    report.put("iterations", iterations);
+    report.put("medianStepMillis", timings);
+
+    Files.createDirectories(OUTPUT_DIR);
+    Path json = OUTPUT_DIR.resolve("emulation-profiles.json");
+    Files.write(
+        json,
+        new GsonBuilder()
+            .setPrettyPrinting()
+            .serializeSpecialFloatingPointValues()
+            .create()
+            .toJson(report)
+            .getBytes(StandardCharsets.UTF_8));
+    Path table = OUTPUT_DIR.resolve("emulation-profiles.md");
+    Files.write(table, comparison(flows, timings).getBytes(StandardCharsets.UTF_8));
+    logger.info("Benchmark written to {} (comparison: {})", json, table);
+  }
+
+  /**
+   * Runs every flow in fresh throttled sessions.
+   *
+   * @return median milliseconds per flow, NaN for flows that never passed
+   */
+  private static Map<String, Double> measure(
+      EmulationProfile profile, Map<String, Consumer<WebDriver>> flows, int iterations) {
+    Map<String, List<Double>> latencies = new LinkedHashMap<>();
+    flows.keySet().forEach(flow -> latencies.put(flow, new ArrayList<>()));
+
+    for (int i = 0; i < iterations; i++) {
+      WebDriver driver = null;
+      try {
+        driver = BrowserFactory.createDriver(Config.BROWSER, Config.HEADLESS, null);
+        if (!profile.apply(driver)) {
+          logger.warn("Profile {} could not be applied; its timings are unthrottled", profile);
+        }
+        for (Map.Entry<String, Consumer<WebDriver>> flow : flows.entrySet()) {
+          long start = System.nanoTime();
+          try {
+            flow.getValue().accept(driver);
+            latencies.get(flow.getKey()).add((System.nanoTime() - start) / 1e6);
+          } catch (Exception | AssertionError e) {
+            logger.warn(
+                "{}: flow '{}' failed: {}", profile.getName(), flow.getKey(), e.getMessage());
+          }
+        }
+      } catch (Exception e) {
+        logger.error("Browser could not be started: {}", e.getMessage());
+        break;
+      } finally {
+        BrowserFactory.quitDriver(driver);
+      }
+    }
+
+    Map<String, Double> medians = new LinkedHashMap<>();
+    latencies.forEach((flow, values) -> medians.put(flow, median(values)));
+    logger.info("{}: median step times {}", profile.getName(), medians);
+    return medians;
+  }
+
+  /** Renders steps against profiles: median time and slowdown against the first profile. */
+  private static String comparison(
+      Map<String, Consumer<WebDriver>> flows, Map<String, Map<String, Double>> timings) {
+    List<String> profiles = new ArrayList<>(timings.keySet());
+    StringBuilder markdown = new StringBuilder("| Step |");
+    StringBuilder separator = new StringBuilder("|------|");
+    for (String profile : profiles) {
+      markdown.append(' ').append(profile).append(" |");
+      separator.append("------|");
+    }
+    markdown.append('\n').append(separator).append('\n');
+    for (String flow : flows.keySet()) {
+      markdown.append("| ").append(flow).append(" |");
+      double baseline = timings.get(profiles.get(0)).get(flow);
+      for (String profile : profiles) {
+        double millis = timings.get(profile).get(flow);
+        if (Double.isNaN(millis)) {
+          markdown.append(" fail |");
+        } else if (profile.equals(profiles.get(0)) || Double.isNaN(baseline)) {
+          markdown.append(String.format(" %.0f ms |", millis));
+        } else {
+          markdown.append(String.format(" %.0f ms (%.1fx) |", millis, millis / baseline));
+        }
+      }
+      markdown.append('\n');
+    }
+    return markdown.toString();
+  }
+
+  private static double median(List<Double> values) {
+    if (values.isEmpty()) {
+      return Double.NaN;
+    }
+    List<Double> sorted = new ArrayList<>(values);
+    Collections.sort(sorted);
+    return sorted.get(sorted.size() / 2);
+  }
+}
@@ -0,0 +1,175 @@
+package demoblaze.utils;
+
+import demoblaze.config.Config;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * EmulationProfile - Slower network and CPU conditions for performance regression runs, applied
+ * through CDP ({@code Network.emulateNetworkConditions} and {@code Emulation.setCPUThrottlingRate})
+ * to every driver {@link BrowserFactory} creates when {@code -Demulation.profile} is set. Built-in
+ * profiles follow the Chrome DevTools presets and can be combined with "+", e.g. {@code
+ * fast-3g+cpu-4x}. Chrome and Edge only; other browsers run unthrottled with a warning.
+ *
+ * <p>Throttling applies to the driver's DevTools page session, so windows opened later and browser
+ * contexts from {@link BrowserContextPool} run at full speed. Compare step timings across profiles
+ * with {@link EmulationBenchmark}.
+ */
+public class EmulationProfile {
+  private static final Logger logger = LoggerFactory.getLogger(EmulationProfile.class);
+
+  private static final Map<String, EmulationProfile> BUILT_IN = new LinkedHashMap<>();
+
+  static {
+    register(new EmulationProfile("none"));
+    register(new EmulationProfile("slow-3g").network(2000, 400, 400));
+    register(new EmulationProfile("fast-3g").network(562.5, 1440, 675));
+    register(new EmulationProfile("slow-4g").network(150, 1600, 750));
+    register(new EmulationProfile("cpu-4x").cpuSlowdown(4));
+    register(new EmulationProfile("cpu-6x").cpuSlowdown(6));
+    register(new EmulationProfile("mobile").network(562.5, 1440, 675).cpuSlowdown(4));
+  }
+
+  private final String name;
+  private double latencyMillis;
+  private double downloadKbps = -1;
+  private double uploadKbps = -1;
+  private double cpuSlowdown = 1;
+
+  private EmulationProfile(String name) {
+    this.name = name;
+  }
+
+  /** Creates an unthrottled profile to configure with {@link #network} and {@link #cpuSlowdown}. */
+  public static EmulationProfile custom(String name) {
+    return new EmulationProfile(name);
+  }
+
+  /**
+   * Adds network throttling.
+   *
+   * @param latencyMillis added round-trip latency
+   * @param downloadKbps download throughput in kbit/s, or -1 for unlimited
+   * @param uploadKbps upload throughput in kbit/s, or -1 for unlimited
+   */
+  public EmulationProfile network(double latencyMillis, double downloadKbps, double uploadKbps) {
+    this.latencyMillis = latencyMillis;
+    this.downloadKbps = downloadKbps;
+    this.uploadKbps = uploadKbps;
+    return this;
+  }
+
+  /** Adds CPU throttling; 4 makes scripts and layout run four times slower. */
+  public EmulationProfile cpuSlowdown(double factor) {
+    this.cpuSlowdown = factor;
+    return this;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Looks up a built-in profile, or a combination of them joined by "+". Network settings come from
+   * the last part that sets them, the CPU slowdown from the last part that sets one.
+   *
+   * @throws IllegalArgumentException for unknown profile names
+   */
+  public static EmulationProfile named(String name) {
+    EmulationProfile combined = new EmulationProfile(name.trim().toLowerCase());
+    for (String part : combined.name.split("\\+")) {
+      EmulationProfile profile = BUILT_IN.get(part.trim());
+      if (profile == null) {
+        throw new IllegalArgumentException(
+            "Unknown emulation profile '" + part.trim() + "', known: " + BUILT_IN.keySet());
+      }
+      if (profile.throttlesNetwork()) {
+        combined.network(profile.latencyMillis, profile.downloadKbps, profile.uploadKbps);
+      }
+      if (profile.cpuSlowdown != 1) {
+        combined.cpuSlowdown(profile.cpuSlowdown);
+      }
+    }
+    return combined;
+  }
+
+  /** The profile selected with -Demulation.profile, if any. */
+  public static Optional<EmulationProfile> configured() {
+    if (Config.EMULATION_PROFILE.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(named(Config.EMULATION_PROFILE));
+  }
+
+  /**
+   * Throttles a driver's session. Browsers without CDP are left unthrottled.
+   *
+   * @return true if the profile was applied
+   */
+  public boolean apply(WebDriver driver) {
+    if (!throttlesNetwork() && cpuSlowdown == 1) {
+      return true;
+    }
+    Optional<DevTools> devTools = DevToolsUtils.open(driver);
+    if (devTools.isEmpty()) {
+      logger.warn("Emulation profile '{}' needs Chrome or Edge (CDP); running unthrottled", name);
+      return false;
+    }
+    try {
+      if (throttlesNetwork()) {
+        DevToolsUtils.send(devTools.get(), "Network.enable", Map.of());
+        DevToolsUtils.send(
+            devTools.get(),
+            "Network.emulateNetworkConditions",
+            Map.of(
+                "offline",
+                false,
+                "latency",
+                latencyMillis,
+                "downloadThroughput",
+                bytesPerSecond(downloadKbps),
+                "uploadThroughput",
+                bytesPerSecond(uploadKbps)));
+      }
+      if (cpuSlowdown != 1) {
+        DevToolsUtils.send(
+            devTools.get(), "Emulation.setCPUThrottlingRate", Map.of("rate", cpuSlowdown));
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Emulation profile '{}' could not be applied: {}", name, e.getMessage());
+      return false;
+    }
+    logger.info("Emulation profile applied: {}", this);
+    return true;
+  }
+
+  /** Whether the profile emulates network conditions, which need the Network domain enabled. */
+  boolean throttlesNetwork() {
+    return latencyMillis > 0 || downloadKbps >= 0 || uploadKbps >= 0;
+  }
+
+  /** CDP expects bytes per second, with -1 meaning no limit. */
+  private static double bytesPerSecond(double kbps) {
+    return kbps < 0 ? -1 : kbps * 1000 / 8;
+  }
+
+  private static void register(EmulationProfile profile) {
+    BUILT_IN.put(profile.name, profile);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s [latency=%.0f ms, down=%s, up=%s, cpu=%.0fx]",
+        name, latencyMillis, rate(downloadKbps), rate(uploadKbps), cpuSlowdown);
+  }
+
+  private static String rate(double kbps) {
+    return kbps < 0 ? "unlimited" : String.format("%.0f kbps", kbps);
+  }
+}
@@ -0,0 +1,357 @@
+package demoblaze.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HarRecorder - Records the network traffic of a Chromium session as a HAR 1.2 file, built from CDP
+ * Network events. Each entry is appended to the file as soon as its request finishes, so memory
+ * only holds requests that are still in flight. Response bodies are optional and capped by size.
+ */
+public class HarRecorder implements Closeable {
+  private static final Logger logger = LoggerFactory.getLogger(HarRecorder.class);
+
+  private static final Gson gson = new Gson();
+
+  private final DevTools devTools;
+  private final Writer writer;
+  private final Pattern urlFilter;
+  private final int maxBodyBytes;
+  private final Map<String, JsonObject> inFlight = new ConcurrentHashMap<>();
+  // Single thread keeps entries in completion order and keeps body fetches off the CDP thread
+  private final ExecutorService entryWriter =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "har-writer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private volatile boolean closed;
+  private int entryCount;
+
+  private HarRecorder(DevTools devTools, Writer writer, Pattern urlFilter, int maxBodyBytes) {
+    this.devTools = devTools;
+    this.writer = writer;
+    this.urlFilter = urlFilter;
+    this.maxBodyBytes = maxBodyBytes;
+  }
+
+  /**
+   * Starts recording the driver's network traffic into the given file.
+   *
+   * @param urlFilter regex a request URL must contain a match for, or null to record everything
+   * @param maxBodyBytes largest response body to embed; 0 records no bodies
+   * @return the recorder, or empty if the driver does not support DevTools
+   */
+  public static Optional<HarRecorder> start(
+      WebDriver driver, Path file, Pattern urlFilter, int maxBodyBytes) {
+    Optional<DevTools> devTools = DevToolsUtils.open(driver);
+    if (devTools.isEmpty()) {
+      logger.warn("HAR capture skipped: browser does not support DevTools");
+      return Optional.empty();
+    }
+    try {
+      Files.createDirectories(file.getParent());
+      Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+      writer.write(
+          "{\"log\":{\"version\":\"1.2\",\"creator\":{\"name\":\"demoblaze\",\"version\":\"1.0\"},"
+              + "\"pages\":[],\"entries\":[\n");
+      HarRecorder recorder = new HarRecorder(devTools.get(), writer, urlFilter, maxBodyBytes);
+      recorder.subscribe();
+      logger.info("HAR capture started: {}", file);
+      return Optional.of(recorder);
+    } catch (IOException e) {
+      logger.error("Could not start HAR capture: {}", file, e);
+      return Optional.empty();
+    }
+  }
+
+  private void subscribe() {
+    devTools.addListener(
+        DevToolsUtils.event("Network.requestWillBeSent"), this::onRequestWillBeSent);
+    devTools.addListener(DevToolsUtils.event("Network.responseReceived"), this::onResponseReceived);
+    devTools.addListener(DevToolsUtils.event("Network.loadingFinished"), this::onLoadingFinished);
+    devTools.addListener(DevToolsUtils.event("Network.loadingFailed"), this::onLoadingFailed);
+    DevToolsUtils.send(devTools, "Network.enable", Map.of());
+  }
+
+  private void onRequestWillBeSent(Map<String, Object> event) {
+    if (closed) {
+      return;
+    }
+    String requestId = (String) event.get("requestId");
+    // A redirect reuses the request id; the hop that just completed becomes its own entry, even
+    // when the URL it redirects to is filtered out
+    JsonObject previous = inFlight.remove(requestId);
+    if (previous != null && event.containsKey("redirectResponse")) {
+      previous.add("response", toHarResponse(DevToolsUtils.child(event, "redirectResponse"), null));
+      finish(requestId, previous, DevToolsUtils.number(event, "timestamp", 0), false);
+    }
+
+    Map<String, Object> request = DevToolsUtils.child(event, "request");
+    String url = String.valueOf(request.get("url"));
+    if (urlFilter != null && !urlFilter.matcher(url).find()) {
+      return;
+    }
+
+    JsonObject entry = new JsonObject();
+    entry.addProperty(
+        "startedDateTime",
+        Instant.ofEpochMilli((long) (DevToolsUtils.number(event, "wallTime", 0) * 1000))
+            .toString());
+    entry.addProperty("_requestTime", DevToolsUtils.number(event, "timestamp", 0));
+    entry.add("request", toHarRequest(request));
+    inFlight.put(requestId, entry);
+  }
+
+  private void onResponseReceived(Map<String, Object> event) {
+    JsonObject entry = inFlight.get((String) event.get("requestId"));
+    if (entry == null) {
+      return;
+    }
+    Map<String, Object> response = DevToolsUtils.child(event, "response");
+    entry.add("response", toHarResponse(response, (String) event.get("type")));
+    entry.add("_timing", gson.toJsonTree(DevToolsUtils.child(response, "timing")));
+  }
+
+  private void onLoadingFinished(Map<String, Object> event) {
+    String requestId = (String) event.get("requestId");
+    JsonObject entry = inFlight.remove(requestId);
+    if (entry == null) {
+      return;
+    }
+    double encodedLength = DevToolsUtils.number(event, "encodedDataLength", 0);
+    if (entry.has("response")) {
+      entry.getAsJsonObject("response").addProperty("bodySize", (long) encodedLength);
+    }
+    boolean fetchBody = maxBodyBytes > 0 && encodedLength <= maxBodyBytes;
+    finish(requestId, entry, DevToolsUtils.number(event, "timestamp", 0), fetchBody);
+  }
+
+  private void onLoadingFailed(Map<String, Object> event) {
+    String requestId = (String) event.get("requestId");
+    JsonObject entry = inFlight.remove(requestId);
+    if (entry == null) {
+      return;
+    }
+    if (!entry.has("response")) {
+      entry.add("response", toHarResponse(Map.of(), null));
+    }
+    entry.addProperty("_error", String.valueOf(event.get("errorText")));
+    finish(requestId, entry, DevToolsUtils.number(event, "timestamp", 0), false);
+  }
+
+  /** Computes timings and queues the completed entry for writing. */
+  private void finish(String requestId, JsonObject entry, double endTime, boolean fetchBody) {
+    if (closed) {
+      return;
+    }
+    if (!entry.has("response")) {
+      entry.add("response", toHarResponse(Map.of(), null));
+    }
+    addTimings(entry, endTime);
+    try {
+      entryWriter.execute(
+          () -> {
+            if (fetchBody) {
+              attachBody(requestId, entry);
+            }
+            writeEntry(entry);
+          });
+    } catch (RejectedExecutionException e) {
+      // The recorder was closed while this event was being handled on the CDP thread
+      logger.debug("HAR entry for {} dropped after close", requestId);
+    }
+  }
+
+  private void attachBody(String requestId, JsonObject entry) {
+    try {
+      Map<String, Object> body =
+          DevToolsUtils.send(devTools, "Network.getResponseBody", Map.of("requestId", requestId));
+      JsonObject content = entry.getAsJsonObject("response").getAsJsonObject("content");
+      String text = String.valueOf(body.get("body"));
+      if (text.length() <= maxBodyBytes) {
+        content.addProperty("text", text);
+        if (Boolean.TRUE.equals(body.get("base64Encoded"))) {
+          content.addProperty("encoding", "base64");
+        }
+      }
+    } catch (Exception e) {
+      // Bodies of redirects, preflights and evicted resources are not retained by the browser
+      logger.debug("No response body for {}: {}", requestId, e.getMessage());
+    }
+  }
+
+  private synchronized void writeEntry(JsonObject entry) {
+    try {
+      if (entryCount > 0) {
+        writer.write(",\n");
+      }
+      gson.toJson(entry, writer);
+      writer.flush();
+      entryCount++;
+    } catch (IOException e) {
+      logger.error("Could not write HAR entry", e);
+    }
+  }
+
+  /**
+   * Stops recording, flushes pending entries and completes the HAR document. The Network listeners
+   * are removed so a reused session does not keep feeding a finished recorder. Network events are
+   * disabled again unless an emulation profile throttles the network, which needs them.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      devTools.clearListeners();
+      if (EmulationProfile.configured().filter(EmulationProfile::throttlesNetwork).isEmpty()) {
+        DevToolsUtils.send(devTools, "Network.disable", Map.of());
+      }
+    } catch (RuntimeException e) {
+      logger.debug("Could not detach HAR listeners: {}", e.getMessage());
+    }
+    inFlight.clear();
+    entryWriter.shutdown();
+    try {
+      entryWriter.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this) {
+      try {
+        writer.write("\n]}}\n");
+        writer.close();
+        logger.info("HAR capture finished: {} entries", entryCount);
+      } catch (IOException e) {
+        logger.error("Could not complete HAR file", e);
+      }
+    }
+  }
+
+  private static JsonObject toHarRequest(Map<String, Object> request) {
+    JsonObject harRequest = new JsonObject();
+    harRequest.addProperty("method", String.valueOf(request.get("method")));
+    harRequest.addProperty("url", String.valueOf(request.get("url")));
+    harRequest.addProperty("httpVersion", "HTTP/1.1");
+    harRequest.add("headers", toHarHeaders(DevToolsUtils.child(request, "headers")));
+    harRequest.add("queryString", new JsonArray());
+    harRequest.add("cookies", new JsonArray());
+    harRequest.addProperty("headersSize", -1);
+    Object postData = request.get("postData");
+    harRequest.addProperty("bodySize", postData == null ? 0 : postData.toString().length());
+    if (postData != null) {
+      JsonObject harPostData = new JsonObject();
+      Map<String, Object> headers = DevToolsUtils.child(request, "headers");
+      harPostData.addProperty("mimeType", String.valueOf(headers.getOrDefault("Content-Type", "")));
+      harPostData.addProperty("text", postData.toString());
+      harRequest.add("postData", harPostData);
+    }
+    return harRequest;
+  }
+
+  private static JsonObject toHarResponse(Map<String, Object> response, String resourceType) {
+    JsonObject harResponse = new JsonObject();
+    harResponse.addProperty("status", (int) DevToolsUtils.number(response, "status", 0));
+    harResponse.addProperty("statusText", String.valueOf(response.getOrDefault("statusText", "")));
+    harResponse.addProperty(
+        "httpVersion", String.valueOf(response.getOrDefault("protocol", "HTTP/1.1")));
+    harResponse.add("headers", toHarHeaders(DevToolsUtils.child(response, "headers")));
+    harResponse.add("cookies", new JsonArray());
+    JsonObject content = new JsonObject();
+    content.addProperty("size", (long) DevToolsUtils.number(response, "encodedDataLength", 0));
+    content.addProperty("mimeType", String.valueOf(response.getOrDefault("mimeType", "")));
+    harResponse.add("content", content);
+    Map<String, Object> headers = DevToolsUtils.child(response, "headers");
+    harResponse.addProperty(
+        "redirectURL",
+        String.valueOf(headers.getOrDefault("location", headers.getOrDefault("Location", ""))));
+    harResponse.addProperty("headersSize", -1);
+    harResponse.addProperty("bodySize", -1);
+    if (resourceType != null) {
+      harResponse.addProperty("_resourceType", resourceType);
+    }
+    return harResponse;
+  }
+
+  private static JsonArray toHarHeaders(Map<String, Object> headers) {
+    JsonArray harHeaders = new JsonArray();
+    headers.forEach(
+        (name, value) -> {
+          JsonObject header = new JsonObject();
+          header.addProperty("name", name);
+          header.addProperty("value", String.valueOf(value));
+          harHeaders.add(header);
+        });
+    return harHeaders;
+  }
+
+  /**
+   * Converts CDP ResourceTiming (millisecond offsets from requestTime) into HAR timings. Requests
+   * without timing data (cache hits, failures) report their whole duration as wait.
+   */
+  private static void addTimings(JsonObject entry, double endTime) {
+    double requestTime = entry.remove("_requestTime").getAsDouble();
+    double total = Math.max(0, (endTime - requestTime) * 1000);
+    JsonObject timings = new JsonObject();
+
+    if (entry.has("_timing") && entry.getAsJsonObject("_timing").has("requestTime")) {
+      JsonObject timing = entry.remove("_timing").getAsJsonObject();
+      double dnsStart = timing.get("dnsStart").getAsDouble();
+      double connectStart = timing.get("connectStart").getAsDouble();
+      double sendStart = timing.get("sendStart").getAsDouble();
+      double sendEnd = timing.get("sendEnd").getAsDouble();
+      double headersEnd = timing.get("receiveHeadersEnd").getAsDouble();
+      double timingStart = timing.get("requestTime").getAsDouble();
+      double blocked = dnsStart >= 0 ? dnsStart : connectStart >= 0 ? connectStart : sendStart;
+
+      timings.addProperty("blocked", blocked);
+      timings.addProperty("dns", span(timing, "dnsStart", "dnsEnd"));
+      timings.addProperty("connect", span(timing, "connectStart", "connectEnd"));
+      timings.addProperty("ssl", span(timing, "sslStart", "sslEnd"));
+      timings.addProperty("send", Math.max(0, sendEnd - sendStart));
+      timings.addProperty("wait", Math.max(0, headersEnd - sendEnd));
+      timings.addProperty("receive", Math.max(0, (endTime - timingStart) * 1000 - headersEnd));
+      total = Math.max(0, (endTime - timingStart) * 1000);
+    } else {
+      entry.remove("_timing");
+      timings.addProperty("send", 0);
+      timings.addProperty("wait", total);
+      timings.addProperty("receive", 0);
+    }
+
+    entry.addProperty("time", total);
+    entry.add("cache", new JsonObject());
+    entry.add("timings", timings);
+  }
+
+  private static double span(JsonObject timing, String start, String end) {
+    double startValue = timing.get(start).getAsDouble();
+    double endValue = timing.get(end).getAsDouble();
+    return startValue >= 0 && endValue >= 0 ? endValue - startValue : -1;
+  }
+}
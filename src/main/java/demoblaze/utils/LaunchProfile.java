@@ -0,0 +1,151 @@
+package demoblaze.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * LaunchProfile - A named set of browser arguments and preferences, optionally annotated with the
+ * startup benchmark results that ranked it. Profiles are stored as JSON in {@link
+ * Config#LAUNCH_PROFILE_DIR} and selected with {@code -Dbrowser.profile=<name>}.
+ */
+public class LaunchProfile {
+  private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+  private String name;
+  private String browser;
+  private List<String> arguments = new ArrayList<>();
+  private Map<String, Object> preferences = new LinkedHashMap<>();
+
+  // Benchmark results, absent for hand-written profiles
+  private Integer rank;
+  private Double coldStartMillis;
+  private Double firstNavigationMillis;
+  private Double memoryBytes;
+
+  private LaunchProfile() {
+    // Used by Gson; keeps field defaults for keys missing from the file
+  }
+
+  public LaunchProfile(String name, String browser, List<String> arguments) {
+    this.name = name;
+    this.browser = browser;
+    this.arguments = new ArrayList<>(arguments);
+  }
+
+  /** Adds a browser preference (Chrome/Edge "prefs", Firefox about:config). */
+  public LaunchProfile withPreference(String key, Object value) {
+    preferences.put(key, value);
+    return this;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getBrowser() {
+    return browser;
+  }
+
+  public List<String> getArguments() {
+    return arguments;
+  }
+
+  public Map<String, Object> getPreferences() {
+    return preferences;
+  }
+
+  /** Whether the arguments already choose a headless mode. */
+  public boolean isHeadless() {
+    return arguments.stream().anyMatch(argument -> argument.startsWith("--headless"));
+  }
+
+  public Integer getRank() {
+    return rank;
+  }
+
+  public Double getColdStartMillis() {
+    return coldStartMillis;
+  }
+
+  public Double getFirstNavigationMillis() {
+    return firstNavigationMillis;
+  }
+
+  public Double getMemoryBytes() {
+    return memoryBytes;
+  }
+
+  /** Stores benchmark results on the profile. */
+  public void setResults(
+      int rank, double coldStartMillis, double firstNavigationMillis, Double memoryBytes) {
+    this.rank = rank;
+    this.coldStartMillis = coldStartMillis;
+    this.firstNavigationMillis = firstNavigationMillis;
+    this.memoryBytes = memoryBytes;
+  }
+
+  /** Returns a copy under a different name, e.g. to publish the winner as "chrome-tuned". */
+  public LaunchProfile renamed(String newName) {
+    LaunchProfile copy = gson.fromJson(gson.toJson(this), LaunchProfile.class);
+    copy.name = newName;
+    return copy;
+  }
+
+  /** Loads the profile selected with -Dbrowser.profile, if any. */
+  public static Optional<LaunchProfile> configured() {
+    if (Config.LAUNCH_PROFILE.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(load(Config.LAUNCH_PROFILE));
+  }
+
+  /** Loads a profile by name from the profile directory. */
+  public static LaunchProfile load(String name) {
+    Path file = Paths.get(Config.LAUNCH_PROFILE_DIR, name + ".json");
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      LaunchProfile profile = gson.fromJson(reader, LaunchProfile.class);
+      // JSON numbers come back as doubles; browsers expect integer preferences to stay integers
+      profile.preferences.replaceAll(
+          (key, value) ->
+              value instanceof Double && (Double) value == Math.rint((Double) value)
+                  ? (Object) ((Double) value).intValue()
+                  : value);
+      return profile;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Launch profile not found: " + file, e);
+    }
+  }
+
+  /** Saves the profile to the profile directory under its name. */
+  public Path save() {
+    Path file = Paths.get(Config.LAUNCH_PROFILE_DIR, name + ".json");
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        gson.toJson(this, writer);
+      }
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not save launch profile: " + file, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return name + " " + arguments + (preferences.isEmpty() ? "" : " " + preferences);
+  }
+}
@@ -0,0 +1,203 @@
+package demoblaze.utils;
+
+import com.google.gson.GsonBuilder;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LaunchProfileBenchmark - Launches a browser under candidate argument and preference sets,
+ * measures cold start, first navigation to {@link Config#BASE_URL} and the memory of the driver and
+ * browser processes ({@link ProcessTree}), and writes every candidate as a ranked {@link
+ * LaunchProfile}. Candidates that launch headless are ranked apart from headed ones, since headless
+ * always wins on startup. The winner in the mode of the run ({@code -Dheadless}) is saved as {@code
+ * <browser>-tuned}, which the suite can use with {@code -Dbrowser.profile=chrome-tuned}; in a
+ * headed run the headless winner is saved as {@code <browser>-tuned-headless}.
+ *
+ * <p>Run with: {@code mvn compile exec:java -Dexec.mainClass=demoblaze.utils.LaunchProfileBenchmark
+ * -Dbrowser=chrome -Dbenchmark.iterations=5}
+ */
+public class LaunchProfileBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(LaunchProfileBenchmark.class);
+
+  private LaunchProfileBenchmark() {
+    // Private constructor to prevent instantiation
+  }
+
+  public static void main(String[] args) throws IOException {
+    String browser = Config.BROWSER;
+    int iterations = Integer.getInteger("benchmark.iterations", 3);
+    Map<Boolean, List<LaunchProfile>> byMode = new LinkedHashMap<>();
+    Map<LaunchProfile, double[]> results = new LinkedHashMap<>();
+
+    for (LaunchProfile candidate : candidates(browser)) {
+      double[] medians = measure(browser, candidate, iterations);
+      if (medians != null) {
+        results.put(candidate, medians);
+        byMode
+            .computeIfAbsent(Config.HEADLESS || candidate.isHeadless(), mode -> new ArrayList<>())
+            .add(candidate);
+      }
+    }
+    if (results.isEmpty()) {
+      logger.error("No launch profile could be benchmarked for {}", browser);
+      return;
+    }
+
+    List<Map<String, Object>> summary = new ArrayList<>();
+    for (Map.Entry<Boolean, List<LaunchProfile>> mode : byMode.entrySet()) {
+      boolean headless = mode.getKey();
+      List<LaunchProfile> ranked = mode.getValue();
+      // Rank by time to a usable first page; memory is reported but does not affect order
+      ranked.sort(
+          Comparator.comparingDouble(profile -> results.get(profile)[0] + results.get(profile)[1]));
+      for (int i = 0; i < ranked.size(); i++) {
+        LaunchProfile profile = ranked.get(i);
+        double[] medians = results.get(profile);
+        profile.setResults(
+            i + 1, medians[0], medians[1], Double.isNaN(medians[2]) ? null : medians[2]);
+        profile.save();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("mode", headless ? "headless" : "headed");
+        row.put("rank", i + 1);
+        row.put("profile", profile.getName());
+        row.put("coldStartMillis", medians[0]);
+        row.put("firstNavigationMillis", medians[1]);
+        row.put("memoryBytes", Double.isNaN(medians[2]) ? null : medians[2]);
+        summary.add(row);
+        logger.info(
+            "{} #{} {}: cold start {} ms, first navigation {} ms, memory {}",
+            headless ? "headless" : "headed",
+            i + 1,
+            profile.getName(),
+            Math.round(medians[0]),
+            Math.round(medians[1]),
+            Double.isNaN(medians[2]) ? "n/a" : Math.round(medians[2] / (1024 * 1024)) + " MiB");
+      }
+      String tunedName = browser + (headless == Config.HEADLESS ? "-tuned" : "-tuned-headless");
+      Path tuned = ranked.get(0).renamed(tunedName).save();
+      logger.info(
+          "Best {} profile {} saved as {}",
+          headless ? "headless" : "headed",
+          ranked.get(0).getName(),
+          tuned);
+    }
+
+    Path ranking = Paths.get(Config.LAUNCH_PROFILE_DIR, browser + "-ranking.json");
+    Files.write(
+        ranking,
+        new GsonBuilder()
+            .setPrettyPrinting()
+            .create()
+            .toJson(summary)
+            .getBytes(StandardCharsets.UTF_8));
+    logger.info("Ranking written to {}", ranking);
+  }
+
+  /**
+   * Runs one candidate several times.
+   *
+   * @return medians of cold start ms, first navigation ms and driver plus browser process memory in
+   *     bytes (NaN without {@code /proc}), or null if the browser failed to launch with this
+   *     candidate
+   */
+  private static double[] measure(String browser, LaunchProfile candidate, int iterations) {
+    List<Double> coldStarts = new ArrayList<>();
+    List<Double> navigations = new ArrayList<>();
+    List<Double> memory = new ArrayList<>();
+    for (int i = 0; i < iterations; i++) {
+      WebDriver driver = null;
+      try {
+        long start = System.nanoTime();
+        driver = BrowserFactory.createDriver(browser, Config.HEADLESS, candidate);
+        long launched = System.nanoTime();
+        driver.navigate().to(Config.BASE_URL);
+        long navigated = System.nanoTime();
+        coldStarts.add((launched - start) / 1e6);
+        navigations.add((navigated - launched) / 1e6);
+        // Only one browser runs at a time, so every process this JVM started belongs to it
+        long processes = ProcessTree.memoryBytes();
+        if (processes > 0) {
+          memory.add((double) processes);
+        }
+      } catch (Exception e) {
+        logger.warn("Candidate {} failed: {}", candidate.getName(), e.getMessage());
+        return null;
+      } finally {
+        BrowserFactory.quitDriver(driver);
+      }
+    }
+    return new double[] {median(coldStarts), median(navigations), median(memory)};
+  }
+
+  private static double median(List<Double> values) {
+    if (values.isEmpty()) {
+      return Double.NaN;
+    }
+    List<Double> sorted = new ArrayList<>(values);
+    Collections.sort(sorted);
+    return sorted.get(sorted.size() / 2);
+  }
+
+  /** Candidate launch profiles for a browser; the first one matches BrowserFactory's defaults. */
+  static List<LaunchProfile> candidates(String browser) {
+    String prefix = browser + "-";
+    if ("firefox".equals(browser)) {
+      return List.of(
+          new LaunchProfile(prefix + "default", browser, List.of("--width=1920", "--height=1080")),
+          new LaunchProfile(
+              prefix + "small-window", browser, List.of("--width=1280", "--height=800")),
+          new LaunchProfile(prefix + "lean", browser, List.of("--width=1280", "--height=800"))
+              .withPreference("browser.shell.checkDefaultBrowser", false)
+              .withPreference("app.update.enabled", false)
+              .withPreference("datareporting.policy.dataSubmissionEnabled", false)
+              .withPreference("toolkit.telemetry.enabled", false),
+          new LaunchProfile(prefix + "no-images", browser, List.of("--width=1280", "--height=800"))
+              .withPreference("permissions.default.image", 2));
+    }
+    List<String> defaults =
+        "edge".equals(browser)
+            ? List.of("--start-maximized")
+            : List.of(
+                "--start-maximized",
+                "--disable-blink-features=AutomationControlled",
+                "--disable-extensions",
+                "--disable-gpu");
+    List<String> lean =
+        List.of(
+            "--window-size=1280,800",
+            "--disable-extensions",
+            "--disable-gpu",
+            "--no-first-run",
+            "--no-default-browser-check",
+            "--disable-background-networking",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--disable-sync");
+    List<String> leanHeadless = new ArrayList<>(lean);
+    leanHeadless.add(0, "--headless=new");
+    List<String> leanShm = new ArrayList<>(leanHeadless);
+    leanShm.add("--disable-dev-shm-usage");
+    return List.of(
+        new LaunchProfile(prefix + "default", browser, defaults),
+        new LaunchProfile(
+            prefix + "small-window", browser, List.of("--window-size=1280,800", "--disable-gpu")),
+        new LaunchProfile(prefix + "lean", browser, lean),
+        new LaunchProfile(prefix + "lean-headless", browser, leanHeadless),
+        new LaunchProfile(prefix + "lean-headless-shm", browser, leanShm),
+        new LaunchProfile(prefix + "no-images", browser, leanHeadless)
+            .withPreference("profile.managed_default_content_settings.images", 2));
+  }
+}
@@ -0,0 +1,287 @@
+package demoblaze.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LiveMetrics - Publishes suite health while it runs, in OpenMetrics text format on {@code
+ * http://127.0.0.1:<metrics.port>/metrics}, so a local Prometheus-compatible collector can scrape
+ * long runs instead of waiting for the reports at the end. Exposes tests started and finished,
+ * sessions in use, wait latencies, WebDriver command latencies and retries.
+ *
+ * <p>Off unless {@code -Dmetrics.port} is set: every recording method then returns on a constant
+ * check and no command timer is installed, so a normal run pays nothing. Counters are {@link
+ * LongAdder}s, so parallel tests do not contend on them. The last snapshot is written to {@code
+ * target/perf/metrics.txt} when the endpoint stops.
+ */
+public class LiveMetrics {
+  private static final Logger logger = LoggerFactory.getLogger(LiveMetrics.class);
+
+  private static final boolean ENABLED = Config.METRICS_PORT > 0;
+  private static final String PREFIX = "demoblaze_";
+  private static final String CONTENT_TYPE =
+      "application/openmetrics-text; version=1.0.0; charset=utf-8";
+  private static final Path SNAPSHOT_FILE = Paths.get("target", "perf", "metrics.txt");
+  // Upper bounds in seconds, from quick DOM checks up to the longest explicit wait
+  private static final double[] BUCKETS = {
+    0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+  };
+
+  private static final Map<String, LongAdder> testsStarted = new ConcurrentHashMap<>();
+  private static final Map<String, LongAdder> testsFinished = new ConcurrentHashMap<>();
+  private static final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+  private static final Map<String, Histogram> waits = new ConcurrentHashMap<>();
+  private static final Map<String, Histogram> commands = new ConcurrentHashMap<>();
+
+  private static HttpServer server;
+
+  private LiveMetrics() {
+    // Private constructor to prevent instantiation
+  }
+
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /** Starts the endpoint if {@code -Dmetrics.port} is set. Safe to call more than once. */
+  public static synchronized void start() {
+    if (!ENABLED || server != null) {
+      return;
+    }
+    try {
+      server =
+          HttpServer.create(
+              new InetSocketAddress(InetAddress.getLoopbackAddress(), Config.METRICS_PORT), 0);
+    } catch (IOException e) {
+      logger.warn(
+          "Metrics endpoint could not listen on {}: {}", Config.METRICS_PORT, e.getMessage());
+      return;
+    }
+    server.createContext(
+        "/metrics",
+        exchange -> {
+          byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.setExecutor(
+        Executors.newSingleThreadExecutor(
+            task -> {
+              Thread thread = new Thread(task, "live-metrics");
+              thread.setDaemon(true);
+              return thread;
+            }));
+    server.start();
+    logger.info("Live metrics at http://127.0.0.1:{}/metrics", Config.METRICS_PORT);
+  }
+
+  /** Stops the endpoint and writes the final snapshot. Call once at the end of the run. */
+  public static synchronized void stop() {
+    if (server == null) {
+      return;
+    }
+    server.stop(0);
+    server = null;
+    try {
+      Files.createDirectories(SNAPSHOT_FILE.getParent());
+      Files.write(SNAPSHOT_FILE, scrape().getBytes(StandardCharsets.UTF_8));
+      logger.info("Final metrics written to {}", SNAPSHOT_FILE);
+    } catch (IOException e) {
+      logger.warn("Could not write metrics snapshot: {}", e.getMessage());
+    }
+  }
+
+  public static void testStarted(String browser) {
+    if (ENABLED) {
+      counter(testsStarted, label("browser", browser)).increment();
+    }
+  }
+
+  /**
+   * Counts a finished test.
+   *
+   * @param status outcome, e.g. "pass", "fail", "skip" or "retried"
+   */
+  public static void testFinished(String browser, String status) {
+    if (ENABLED) {
+      counter(testsFinished, label("browser", browser) + "," + label("status", status)).increment();
+    }
+  }
+
+  /**
+   * Counts a retry.
+   *
+   * @param kind "interaction" for {@link RetryExecutor} retries, "test" for whole-test reruns,
+   *     "scenario" for {@link Scenario} attempts resumed after a transient failure
+   */
+  public static void retried(String kind) {
+    if (ENABLED) {
+      counter(retries, label("kind", kind)).increment();
+    }
+  }
+
+  /**
+   * Records how long an explicit wait took.
+   *
+   * @param condition wait condition, e.g. "visible"
+   * @param satisfied false if the wait timed out or failed
+   */
+  public static void observeWait(String condition, long nanos, boolean satisfied) {
+    if (ENABLED) {
+      String labels =
+          label("condition", condition) + "," + label("outcome", satisfied ? "ok" : "timeout");
+      waits.computeIfAbsent(labels, key -> new Histogram()).observe(nanos);
+    }
+  }
+
+  /**
+   * Filter for a driver's HTTP client that times every WebDriver command it sends. Commands are
+   * labelled by method and endpoint with session and element ids removed, e.g. {@code POST
+   * /element/{id}/click}.
+   */
+  public static Filter commandTimer() {
+    return next ->
+        request -> {
+          long start = System.nanoTime();
+          try {
+            return next.execute(request);
+          } finally {
+            commands
+                .computeIfAbsent(label("command", command(request)), key -> new Histogram())
+                .observe(System.nanoTime() - start);
+          }
+        };
+  }
+
+  /** Renders every metric in OpenMetrics text format. */
+  public static String scrape() {
+    StringBuilder text = new StringBuilder();
+    counters(text, "tests_started", "Tests started", testsStarted);
+    counters(text, "tests_finished", "Tests finished, by outcome", testsFinished);
+    counters(text, "retries", "Retries of interactions and whole tests", retries);
+    text.append("# TYPE ").append(PREFIX).append("sessions gauge\n");
+    text.append("# HELP ").append(PREFIX).append("sessions WebDriver sessions by state\n");
+    text.append(PREFIX).append("sessions{state=\"active\"} ");
+    text.append(BrowserFactory.activeSessions()).append('\n');
+    text.append(PREFIX).append("sessions{state=\"idle\"} ");
+    text.append(BrowserFactory.idleSessions()).append('\n');
+    histograms(text, "wait_seconds", "Explicit wait latency", waits);
+    histograms(text, "command_seconds", "WebDriver command latency", commands);
+    return text.append("# EOF\n").toString();
+  }
+
+  private static void counters(
+      StringBuilder text, String name, String help, Map<String, LongAdder> series) {
+    text.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+    text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    new TreeMap<>(series)
+        .forEach(
+            (labels, count) ->
+                text.append(PREFIX)
+                    .append(name)
+                    .append("_total{")
+                    .append(labels)
+                    .append("} ")
+                    .append(count.sum())
+                    .append('\n'));
+  }
+
+  private static void histograms(
+      StringBuilder text, String name, String help, Map<String, Histogram> series) {
+    text.append("# TYPE ").append(PREFIX).append(name).append(" histogram\n");
+    text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    new TreeMap<>(series).forEach((labels, histogram) -> histogram.render(text, name, labels));
+  }
+
+  private static LongAdder counter(Map<String, LongAdder> series, String labels) {
+    return series.computeIfAbsent(labels, key -> new LongAdder());
+  }
+
+  private static String label(String name, String value) {
+    String escaped =
+        String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    return name + "=\"" + escaped + "\"";
+  }
+
+  /**
+   * Endpoint of a WebDriver command without the session prefix and with ids replaced, so every
+   * session and element shares one series per command.
+   */
+  static String command(HttpRequest request) {
+    String[] segments = request.getUri().split("\\?")[0].split("/");
+    int first = 1;
+    if (segments.length > 2 && "session".equals(segments[1])) {
+      if (segments.length == 3) {
+        return request.getMethod() + " /session/{id}";
+      }
+      first = 3;
+    }
+    StringBuilder endpoint = new StringBuilder();
+    for (int i = first; i < segments.length; i++) {
+      boolean isId =
+          i > first
+              && i < segments.length - 1
+              && ("element".equals(segments[i - 1]) || "shadow".equals(segments[i - 1]));
+      endpoint.append('/').append(isId ? "{id}" : segments[i]);
+    }
+    return request.getMethod() + " " + (endpoint.length() == 0 ? "/" : endpoint.toString());
+  }
+
+  /** Cumulative-bucket histogram in seconds. */
+  private static final class Histogram {
+    private final LongAdder[] counts = new LongAdder[BUCKETS.length + 1];
+    private final DoubleAdder sum = new DoubleAdder();
+
+    private Histogram() {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = new LongAdder();
+      }
+    }
+
+    void observe(long nanos) {
+      double seconds = nanos / 1e9;
+      int bucket = 0;
+      while (bucket < BUCKETS.length && seconds > BUCKETS[bucket]) {
+        bucket++;
+      }
+      counts[bucket].increment();
+      sum.add(seconds);
+    }
+
+    void render(StringBuilder text, String name, String labels) {
+      long cumulative = 0;
+      for (int i = 0; i < counts.length; i++) {
+        cumulative += counts[i].sum();
+        String bound = i < BUCKETS.length ? String.valueOf(BUCKETS[i]) : "+Inf";
+        text.append(PREFIX).append(name).append("_bucket{").append(labels);
+        text.append(",le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+      }
+      text.append(PREFIX).append(name).append("_count{").append(labels).append("} ");
+      text.append(cumulative).append('\n');
+      text.append(PREFIX).append(name).append("_sum{").append(labels).append("} ");
+      text.append(String.format(Locale.ROOT, "%.6f", sum.sum())).append('\n');
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package demoblaze.utils;
+
+import demoblaze.config.Config;
+import java.time.Duration;
+import java.util.Set;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MutationWaits - Event-driven element waits. Instead of polling the DOM over WebDriver, one {@code
+ * executeAsyncScript} call installs a MutationObserver in the page and returns as soon as the
+ * condition holds, so a wait costs a single round trip and completes within a frame of the DOM
+ * change. A slow in-page timer re-checks the condition for changes that cause no DOM mutation, such
+ * as CSS transitions. Enabled with {@code -Dwaits.mode=observe}.
+ *
+ * <p>Locators must be CSS, XPath, id, name, class, tag or link text locators. If the page navigates
+ * or an alert opens during the wait, the rest of the wait falls back to regular polling.
+ */
+public class MutationWaits {
+  private static final Logger logger = LoggerFactory.getLogger(MutationWaits.class);
+
+  private static final String MODE_OBSERVE = "observe";
+
+  private static final Set<String> CONDITIONS =
+      Set.of("present", "visible", "clickable", "invisible", "text");
+
+  private static final String OBSERVE_SCRIPT =
+      "var using = arguments[0], value = arguments[1], condition = arguments[2],"
+          + "    text = arguments[3], timeout = arguments[4],"
+          + "    done = arguments[arguments.length - 1];"
+          + "function find() {"
+          + "  if (using === 'css selector') { return document.querySelector(value); }"
+          + "  if (using === 'id') { return document.getElementById(value); }"
+          + "  if (using === 'name') { return document.getElementsByName(value)[0] || null; }"
+          + "  if (using === 'class name') {"
+          + "    return document.getElementsByClassName(value)[0] || null;"
+          + "  }"
+          + "  if (using === 'xpath') {"
+          + "    return document.evaluate(value, document, null,"
+          + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+          + "  }"
+          + "  if (using === 'link text' || using === 'partial link text') {"
+          + "    var links = document.getElementsByTagName('a');"
+          + "    for (var i = 0; i < links.length; i++) {"
+          + "      var t = (links[i].innerText || '').trim();"
+          + "      if (using === 'link text' ? t === value : t.indexOf(value) >= 0) {"
+          + "        return links[i];"
+          + "      }"
+          + "    }"
+          + "    return null;"
+          + "  }"
+          + "  return document.getElementsByTagName(value)[0] || null;"
+          + "}"
+          + "function visible(el) {"
+          + "  if (!el || !document.documentElement.contains(el)) { return false; }"
+          + "  var style = getComputedStyle(el);"
+          + "  return el.getClientRects().length > 0 && style.visibility !== 'hidden'"
+          + "      && style.opacity !== '0';"
+          + "}"
+          // Returns the element or true when the condition holds, null otherwise
+          + "function check() {"
+          + "  var el = find();"
+          + "  switch (condition) {"
+          + "    case 'present': return el;"
+          + "    case 'visible': return visible(el) ? el : null;"
+          + "    case 'clickable': return visible(el) && !el.disabled ? el : null;"
+          + "    case 'invisible': return visible(el) ? null : true;"
+          + "    default:"
+          + "      return el && (el.innerText || el.textContent || '').indexOf(text) >= 0"
+          + "          ? true : null;"
+          + "  }"
+          + "}"
+          + "var result = check();"
+          + "if (result) { done(result); return; }"
+          + "var observer, timer, recheck;"
+          + "function finish(value) {"
+          + "  observer.disconnect(); clearTimeout(timer); clearInterval(recheck); done(value);"
+          + "}"
+          + "function onChange() { var r = check(); if (r) { finish(r); } }"
+          + "observer = new MutationObserver(onChange);"
+          + "observer.observe(document.documentElement || document, {childList: true,"
+          + "    subtree: true, attributes: true, characterData: true});"
+          + "recheck = setInterval(onChange, 100);"
+          + "timer = setTimeout(function () { finish(null); }, timeout);";
+
+  private MutationWaits() {
+    // Private constructor to prevent instantiation
+  }
+
+  /** Whether {@link WaitUtils} should use event-driven waits for this driver. */
+  public static boolean isEnabled(WebDriver driver) {
+    return MODE_OBSERVE.equals(Config.WAIT_MODE) && driver instanceof JavascriptExecutor;
+  }
+
+  /** Whether a wait target and condition can be observed in the page. */
+  public static boolean supports(Object target, String condition) {
+    return target instanceof By.Remotable && CONDITIONS.contains(condition);
+  }
+
+  /**
+   * Waits for a condition on the first element matching a locator.
+   *
+   * @param condition "present", "visible", "clickable", "invisible" or "text"
+   * @param text text the element must contain, for the "text" condition
+   * @param fallback polling condition used if the page goes away during the wait
+   * @return the element for present, visible and clickable; {@code Boolean.TRUE} otherwise
+   * @throws TimeoutException if the condition does not hold within the timeout
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T until(
+      WebDriver driver,
+      By locator,
+      String condition,
+      String text,
+      Duration timeout,
+      ExpectedCondition<T> fallback) {
+    By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+    long start = System.nanoTime();
+    Object result;
+    try {
+      result =
+          ((JavascriptExecutor) driver)
+              .executeAsyncScript(
+                  OBSERVE_SCRIPT,
+                  parameters.using(),
+                  String.valueOf(parameters.value()),
+                  condition,
+                  text,
+                  timeout.toMillis());
+    } catch (WebDriverException e) {
+      // Navigation or an alert interrupted the script; poll for the time that is left
+      Duration remaining = timeout.minusNanos(System.nanoTime() - start);
+      logger.debug("Observed wait for {} interrupted, polling: {}", locator, e.getMessage());
+      return new WebDriverWait(driver, remaining.isNegative() ? Duration.ZERO : remaining)
+          .until(fallback);
+    }
+    if (result == null) {
+      throw new TimeoutException(
+          String.format(
+              "Expected condition failed: waiting for %s %s (observed for %d ms)",
+              locator, condition, timeout.toMillis()));
+    }
+    return (T) result;
+  }
+}
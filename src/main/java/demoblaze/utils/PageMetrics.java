@@ -0,0 +1,91 @@
+package demoblaze.utils;
+
+import java.util.Map;
+
+/**
+ * PageMetrics - Load performance of one page visit: navigation timing, resource totals and, where
+ * the browser supports them, Largest Contentful Paint and Cumulative Layout Shift. All times are
+ * milliseconds from navigation start.
+ */
+public class PageMetrics {
+  private final String page;
+  private final String url;
+  private final double timeOrigin;
+  private final double ttfb;
+  private final double domContentLoaded;
+  private final double load;
+  private final int resourceCount;
+  private final long transferBytes;
+  private final Double lcp;
+  private final Double cls;
+
+  PageMetrics(String page, String url, Map<String, Object> raw) {
+    this.page = page;
+    this.url = url;
+    this.timeOrigin = DevToolsUtils.number(raw, "timeOrigin", 0);
+    this.ttfb = DevToolsUtils.number(raw, "ttfb", 0);
+    this.domContentLoaded = DevToolsUtils.number(raw, "domContentLoaded", 0);
+    this.load = DevToolsUtils.number(raw, "load", 0);
+    this.resourceCount = (int) DevToolsUtils.number(raw, "resourceCount", 0);
+    this.transferBytes = (long) DevToolsUtils.number(raw, "transferBytes", 0);
+    this.lcp = raw.get("lcp") instanceof Number ? ((Number) raw.get("lcp")).doubleValue() : null;
+    this.cls = raw.get("cls") instanceof Number ? ((Number) raw.get("cls")).doubleValue() : null;
+  }
+
+  public String getPage() {
+    return page;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  /** Identifies the document; unchanged across in-page (AJAX) updates. */
+  public double getTimeOrigin() {
+    return timeOrigin;
+  }
+
+  public double getTtfb() {
+    return ttfb;
+  }
+
+  public double getDomContentLoaded() {
+    return domContentLoaded;
+  }
+
+  public double getLoad() {
+    return load;
+  }
+
+  public int getResourceCount() {
+    return resourceCount;
+  }
+
+  public long getTransferBytes() {
+    return transferBytes;
+  }
+
+  /** Largest Contentful Paint, or null if the browser does not report it. */
+  public Double getLcp() {
+    return lcp;
+  }
+
+  /** Cumulative Layout Shift, or null if the browser does not report it. */
+  public Double getCls() {
+    return cls;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s [ttfb=%.0fms, dcl=%.0fms, load=%.0fms, lcp=%s, cls=%s, resources=%d, bytes=%d]",
+        page,
+        ttfb,
+        domContentLoaded,
+        load,
+        lcp == null ? "n/a" : String.format("%.0fms", lcp),
+        cls == null ? "n/a" : String.format("%.3f", cls),
+        resourceCount,
+        transferBytes);
+  }
+}
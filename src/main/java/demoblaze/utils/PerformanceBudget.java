@@ -0,0 +1,85 @@
+package demoblaze.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PerformanceBudget - Upper limits for the load metrics of one page object. Limits left unset are
+ * not checked, and LCP/CLS limits are skipped on browsers that do not report those metrics.
+ *
+ * <p>Example: {@code PerformanceBudget.forPage("HomePage").maxLcpMillis(2000)}
+ */
+public class PerformanceBudget {
+  private final String page;
+  private double maxTtfbMillis = Double.MAX_VALUE;
+  private double maxLoadMillis = Double.MAX_VALUE;
+  private double maxLcpMillis = Double.MAX_VALUE;
+  private double maxCls = Double.MAX_VALUE;
+  private long maxTransferBytes = Long.MAX_VALUE;
+
+  private PerformanceBudget(String page) {
+    this.page = page;
+  }
+
+  /** Creates a budget for the page object with the given simple class name. */
+  public static PerformanceBudget forPage(String page) {
+    return new PerformanceBudget(page);
+  }
+
+  public PerformanceBudget maxTtfbMillis(double millis) {
+    this.maxTtfbMillis = millis;
+    return this;
+  }
+
+  public PerformanceBudget maxLoadMillis(double millis) {
+    this.maxLoadMillis = millis;
+    return this;
+  }
+
+  public PerformanceBudget maxLcpMillis(double millis) {
+    this.maxLcpMillis = millis;
+    return this;
+  }
+
+  public PerformanceBudget maxCls(double cls) {
+    this.maxCls = cls;
+    return this;
+  }
+
+  public PerformanceBudget maxTransferBytes(long bytes) {
+    this.maxTransferBytes = bytes;
+    return this;
+  }
+
+  public String getPage() {
+    return page;
+  }
+
+  /**
+   * Checks metrics against this budget.
+   *
+   * @return one message per exceeded limit, empty if the page is within budget
+   */
+  public List<String> violations(PageMetrics metrics) {
+    List<String> violations = new ArrayList<>();
+    check(violations, "TTFB", metrics.getTtfb(), maxTtfbMillis);
+    // Load is 0 while the load event has not fired yet
+    if (metrics.getLoad() > 0) {
+      check(violations, "Load", metrics.getLoad(), maxLoadMillis);
+    }
+    if (metrics.getLcp() != null) {
+      check(violations, "LCP", metrics.getLcp(), maxLcpMillis);
+    }
+    if (metrics.getCls() != null) {
+      check(violations, "CLS", metrics.getCls(), maxCls);
+    }
+    check(violations, "Transfer bytes", metrics.getTransferBytes(), maxTransferBytes);
+    return violations;
+  }
+
+  private void check(List<String> violations, String metric, double actual, double limit) {
+    if (actual > limit) {
+      violations.add(String.format("%s %s %.3f exceeds budget %.3f", page, metric, actual, limit));
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package demoblaze.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PerformanceMonitor - Collects page load metrics after page object navigations and readiness waits
+ * when {@code -Dperf.metrics=true}, and appends every sample to a JSONL file for trend tracking
+ * across runs. Samples are checked against the {@link PerformanceBudget}s declared for the driver
+ * that loaded them; breaches are kept and reported by {@link #assertWithinBudgets}, so a slow page
+ * never fails the functional step that loaded it.
+ */
+public class PerformanceMonitor {
+  private static final Logger logger = LoggerFactory.getLogger(PerformanceMonitor.class);
+
+  private static final Gson gson = new Gson();
+  private static final String RUN_ID = Instant.now().toString();
+
+  // LCP and layout shifts are only exposed through buffered PerformanceObservers
+  private static final String METRICS_SCRIPT =
+      "var done = arguments[arguments.length - 1];"
+          + "var result = {};"
+          + "var nav = performance.getEntriesByType('navigation')[0];"
+          + "var t = performance.timing;"
+          + "result.timeOrigin = performance.timeOrigin || t.navigationStart;"
+          + "if (nav) {"
+          + "  result.ttfb = nav.responseStart;"
+          + "  result.domContentLoaded = nav.domContentLoadedEventEnd;"
+          + "  result.load = nav.loadEventEnd;"
+          + "} else {"
+          + "  result.ttfb = t.responseStart - t.navigationStart;"
+          + "  result.domContentLoaded = t.domContentLoadedEventEnd - t.navigationStart;"
+          + "  result.load = t.loadEventEnd > 0 ? t.loadEventEnd - t.navigationStart : 0;"
+          + "}"
+          + "var resources = performance.getEntriesByType('resource');"
+          + "result.resourceCount = resources.length;"
+          + "result.transferBytes = resources.reduce(function (sum, r) {"
+          + "  return sum + (r.transferSize || 0); }, 0);"
+          + "var types = (window.PerformanceObserver && PerformanceObserver.supportedEntryTypes)"
+          + "  || [];"
+          + "if (types.indexOf('largest-contentful-paint') >= 0) {"
+          + "  new PerformanceObserver(function (list) {"
+          + "    var entries = list.getEntries();"
+          + "    result.lcp = entries[entries.length - 1].startTime;"
+          + "  }).observe({type: 'largest-contentful-paint', buffered: true});"
+          + "}"
+          + "if (types.indexOf('layout-shift') >= 0) {"
+          + "  result.cls = 0;"
+          + "  new PerformanceObserver(function (list) {"
+          + "    list.getEntries().forEach(function (e) {"
+          + "      if (!e.hadRecentInput) { result.cls += e.value; } });"
+          + "  }).observe({type: 'layout-shift', buffered: true});"
+          + "}"
+          + "setTimeout(function () { done(result); }, 50);";
+
+  // Keyed by identity: equals/hashCode on a browser context handle would be routed to the browser
+  private static final Map<WebDriver, Map<String, PerformanceBudget>> budgets =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+  private static final Map<WebDriver, List<String>> breaches =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+  private static final Map<WebDriver, Double> lastDocument =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
+  private PerformanceMonitor() {
+    // Private constructor to prevent instantiation
+  }
+
+  /** Declares (or replaces) the budget for a page object, for pages loaded by one driver. */
+  public static void declareBudget(WebDriver driver, PerformanceBudget budget) {
+    budgets.computeIfAbsent(driver, key -> new ConcurrentHashMap<>()).put(budget.getPage(), budget);
+    logger.debug("Performance budget declared for {}", budget.getPage());
+  }
+
+  /** Removes the budgets and unreported breaches of a driver. Call when its test class ends. */
+  public static void clearBudgets(WebDriver driver) {
+    budgets.remove(driver);
+    breaches.remove(driver);
+    lastDocument.remove(driver);
+  }
+
+  /** Drops everything held for a driver that is about to quit. */
+  public static void forget(WebDriver driver) {
+    clearBudgets(driver);
+  }
+
+  /**
+   * Collects metrics for the document currently loaded, records them and checks them against the
+   * page's budget for this driver. Documents already measured (in-page AJAX updates) are skipped.
+   */
+  public static void record(WebDriver driver, String page) {
+    if (!Config.PERF_METRICS_ENABLED || !(driver instanceof JavascriptExecutor)) {
+      return;
+    }
+    PageMetrics metrics;
+    try {
+      Map<String, Object> raw = collect(driver);
+      metrics = new PageMetrics(page, driver.getCurrentUrl(), raw);
+    } catch (Exception e) {
+      logger.debug("Could not collect page metrics for {}: {}", page, e.getMessage());
+      return;
+    }
+
+    Double previous = lastDocument.put(driver, metrics.getTimeOrigin());
+    if (previous != null && previous == metrics.getTimeOrigin()) {
+      return;
+    }
+
+    logger.info("Page metrics: {}", metrics);
+    export(metrics, BrowserFactory.browserOf(driver));
+
+    PerformanceBudget budget = budgets.getOrDefault(driver, Map.of()).get(page);
+    if (budget != null) {
+      List<String> violations = budget.violations(metrics);
+      if (!violations.isEmpty()) {
+        logger.warn("Performance budget exceeded on {}: {}", page, violations);
+        breaches
+            .computeIfAbsent(driver, key -> Collections.synchronizedList(new ArrayList<>()))
+            .addAll(violations);
+      }
+    }
+  }
+
+  /**
+   * Fails if pages loaded by the driver exceeded their budgets since the last check. Budgets are
+   * calibrated for unthrottled runs, so under an emulation profile breaches are only logged.
+   *
+   * @throws AssertionError listing every breach
+   */
+  public static void assertWithinBudgets(WebDriver driver) {
+    List<String> found = breaches.remove(driver);
+    if (found == null || found.isEmpty()) {
+      return;
+    }
+    if (!Config.EMULATION_PROFILE.isEmpty()) {
+      logger.warn(
+          "Performance budgets exceeded under emulation profile '{}', not failing: {}",
+          Config.EMULATION_PROFILE,
+          found);
+      return;
+    }
+    throw new AssertionError("Performance budget exceeded: " + String.join("; ", found));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> collect(WebDriver driver) {
+    Object raw = ((JavascriptExecutor) driver).executeAsyncScript(METRICS_SCRIPT);
+    return raw instanceof Map ? (Map<String, Object>) raw : Map.of();
+  }
+
+  private static synchronized void export(PageMetrics metrics, String browser) {
+    Path file = Paths.get(Config.PERF_METRICS_FILE);
+    JsonObject line = gson.toJsonTree(metrics).getAsJsonObject();
+    line.addProperty("run", RUN_ID);
+    line.addProperty("browser", browser);
+    if (!Config.EMULATION_PROFILE.isEmpty()) {
+      line.addProperty("emulation", Config.EMULATION_PROFILE);
+    }
+    line.addProperty("timestamp", Instant.now().toString());
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer =
+          Files.newBufferedWriter(
+              file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        writer.write(gson.toJson(line));
+        writer.write('\n');
+      }
+    } catch (IOException e) {
+      logger.warn("Could not export page metrics: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package demoblaze.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ProcessTree - Memory of the driver and browser processes started by this JVM, read from {@code
+ * /proc}. Uses the proportional set size (PSS), which splits pages shared between browser processes
+ * instead of counting them once per process, and falls back to the resident set size. Returns 0 on
+ * platforms without {@code /proc}.
+ */
+public class ProcessTree {
+  private static final Logger logger = LoggerFactory.getLogger(ProcessTree.class);
+
+  private ProcessTree() {
+    // Private constructor to prevent instantiation
+  }
+
+  /** Memory of every process this JVM started, in bytes. */
+  public static long memoryBytes() {
+    return ProcessHandle.current().descendants().mapToLong(p -> memoryBytes(p.pid())).sum();
+  }
+
+  /** Memory of a process and all its descendants, in bytes. */
+  public static long memoryBytesOfTree(long pid) {
+    return ProcessHandle.of(pid)
+        .map(
+            root ->
+                memoryBytes(pid) + root.descendants().mapToLong(p -> memoryBytes(p.pid())).sum())
+        .orElse(0L);
+  }
+
+  /** Memory of one process, in bytes. */
+  public static long memoryBytes(long pid) {
+    Path proc = Paths.get("/proc", String.valueOf(pid));
+    long pss = readKilobytes(proc.resolve("smaps_rollup"), "Pss:");
+    return (pss >= 0 ? pss : Math.max(0, readKilobytes(proc.resolve("status"), "VmRSS:"))) * 1024;
+  }
+
+  /** Reads a "Key: <n> kB" line, or -1 if the file or key is unavailable. */
+  private static long readKilobytes(Path file, String key) {
+    try {
+      for (String line : Files.readAllLines(file)) {
+        if (line.startsWith(key)) {
+          return Long.parseLong(line.replaceAll("\\D", ""));
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Could not read {}: {}", file, e.getMessage());
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,195 @@
+package demoblaze.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ResourceMonitor - Samples the resource use of browser sessions (see {@link ResourceSample}),
+ * appends every sample to a JSONL file, and tells {@link BrowserFactory} when a session has grown
+ * past {@link Config#MAX_JS_HEAP_MB} or {@link Config#MAX_BROWSER_MEMORY_MB} and should be retired
+ * instead of reused. Page metrics need CDP and process metrics need CDP {@code
+ * SystemInfo.getProcessInfo}, so only Chrome and Edge sessions are sampled. Off unless {@code
+ * -Dresources.monitor=true}, since sampling costs several CDP calls after every test.
+ */
+public class ResourceMonitor {
+  private static final Logger logger = LoggerFactory.getLogger(ResourceMonitor.class);
+
+  private static final Gson gson = new Gson();
+  private static final String RUN_ID = Instant.now().toString();
+  private static final long MIB = 1024 * 1024;
+
+  private static final Map<WebDriver, Session> sessions = new ConcurrentHashMap<>();
+
+  private ResourceMonitor() {
+    // Private constructor to prevent instantiation
+  }
+
+  /** CDP connections of a monitored session and its previous CPU reading. */
+  private static final class Session {
+    private final DevTools devTools;
+    private final Connection browser;
+    private double lastCpuSeconds = Double.NaN;
+    private long lastSampleNanos;
+    private ResourceSample latest;
+
+    private Session(DevTools devTools, Connection browser) {
+      this.devTools = devTools;
+      this.browser = browser;
+    }
+  }
+
+  /**
+   * Samples a session and exports the sample.
+   *
+   * @return the sample, or empty if monitoring is off or the browser cannot be sampled
+   */
+  public static Optional<ResourceSample> sample(WebDriver driver, String label) {
+    if (!Config.RESOURCE_MONITORING || driver == null || BrowserContextPool.isContext(driver)) {
+      return Optional.empty();
+    }
+    Session session = sessions.computeIfAbsent(driver, ResourceMonitor::open);
+    if (session.devTools == null) {
+      return Optional.empty();
+    }
+    try {
+      ResourceSample sample = collect(session, label);
+      export(sample, BrowserFactory.browserOf(driver));
+      logger.debug("Resource sample {}", sample);
+      return Optional.of(sample);
+    } catch (Exception e) {
+      logger.debug("Could not sample browser resources: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Checks a session against the configured heap and process memory limits, sampling it first.
+   *
+   * @return the limit exceeded, or empty if the session may be reused
+   */
+  public static Optional<String> exceededLimit(WebDriver driver) {
+    return sample(driver, "limit check")
+        .map(
+            sample -> {
+              if (sample.getJsHeapUsedBytes() != null
+                  && sample.getJsHeapUsedBytes() > Config.MAX_JS_HEAP_MB * MIB) {
+                return "JS heap " + sample.getJsHeapUsedBytes() / MIB + " MiB";
+              }
+              if (sample.getProcessMemoryBytes() != null
+                  && sample.getProcessMemoryBytes() > Config.MAX_BROWSER_MEMORY_MB * MIB) {
+                return "browser memory " + sample.getProcessMemoryBytes() / MIB + " MiB";
+              }
+              return null;
+            });
+  }
+
+  /** The most recent sample of a session, if any. */
+  public static Optional<ResourceSample> latest(WebDriver driver) {
+    Session session = sessions.get(driver);
+    return session == null ? Optional.empty() : Optional.ofNullable(session.latest);
+  }
+
+  /** Stops monitoring a driver that is about to quit. */
+  public static void forget(WebDriver driver) {
+    Session session = sessions.remove(driver);
+    if (session != null && session.browser != null) {
+      session.browser.close();
+    }
+  }
+
+  private static Session open(WebDriver driver) {
+    Optional<DevTools> devTools = DevToolsUtils.open(driver);
+    if (devTools.isEmpty()) {
+      return new Session(null, null);
+    }
+    DevToolsUtils.send(devTools.get(), "Performance.enable", Map.of());
+    return new Session(devTools.get(), DevToolsUtils.openBrowserConnection(driver).orElse(null));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ResourceSample collect(Session session, String label) {
+    Map<String, Double> metrics = new HashMap<>();
+    Object raw =
+        DevToolsUtils.send(session.devTools, "Performance.getMetrics", Map.of()).get("metrics");
+    for (Map<String, Object> metric : (List<Map<String, Object>>) raw) {
+      metrics.put((String) metric.get("name"), DevToolsUtils.number(metric, "value", 0));
+    }
+
+    Long processMemory = null;
+    Double cpuSeconds = null;
+    Double cpuPercent = null;
+    if (session.browser != null) {
+      long memory = 0;
+      double cpu = 0;
+      Object processes =
+          DevToolsUtils.send(session.browser, "SystemInfo.getProcessInfo", Map.of())
+              .get("processInfo");
+      for (Map<String, Object> process : (List<Map<String, Object>>) processes) {
+        memory += ProcessTree.memoryBytes((long) DevToolsUtils.number(process, "id", 0));
+        cpu += DevToolsUtils.number(process, "cpuTime", 0);
+      }
+      long now = System.nanoTime();
+      processMemory = memory > 0 ? memory : null;
+      cpuSeconds = cpu;
+      if (!Double.isNaN(session.lastCpuSeconds)) {
+        cpuPercent = 100 * (cpu - session.lastCpuSeconds) / ((now - session.lastSampleNanos) / 1e9);
+      }
+      session.lastCpuSeconds = cpu;
+      session.lastSampleNanos = now;
+    }
+
+    ResourceSample sample =
+        new ResourceSample(
+            label,
+            toLong(metrics.get("JSHeapUsedSize")),
+            toLong(metrics.get("Nodes")),
+            toLong(metrics.get("Documents")),
+            processMemory,
+            cpuSeconds,
+            cpuPercent);
+    session.latest = sample;
+    return sample;
+  }
+
+  private static Long toLong(Double value) {
+    return value == null ? null : value.longValue();
+  }
+
+  private static synchronized void export(ResourceSample sample, String browser) {
+    Path file = Paths.get(Config.RESOURCE_SAMPLES_FILE);
+    JsonObject line = gson.toJsonTree(sample).getAsJsonObject();
+    line.addProperty("run", RUN_ID);
+    line.addProperty("browser", browser);
+    line.addProperty("timestamp", Instant.now().toString());
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer =
+          Files.newBufferedWriter(
+              file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        writer.write(gson.toJson(line));
+        writer.write('\n');
+      }
+    } catch (IOException e) {
+      logger.warn("Could not export resource sample: {}", e.getMessage());
+    }
+  }
+}
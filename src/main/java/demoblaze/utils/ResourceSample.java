@@ -0,0 +1,77 @@
+package demoblaze.utils;
+
+/**
+ * ResourceSample - Resource use of one browser session at a point in time: the page's JavaScript
+ * heap and DOM size from CDP {@code Performance.getMetrics}, and memory and CPU time of the browser
+ * processes. Values a browser cannot report are null.
+ */
+public class ResourceSample {
+  private final String label;
+  private final Long jsHeapUsedBytes;
+  private final Long domNodes;
+  private final Long documents;
+  private final Long processMemoryBytes;
+  private final Double cpuSeconds;
+  private final Double cpuPercent;
+
+  ResourceSample(
+      String label,
+      Long jsHeapUsedBytes,
+      Long domNodes,
+      Long documents,
+      Long processMemoryBytes,
+      Double cpuSeconds,
+      Double cpuPercent) {
+    this.label = label;
+    this.jsHeapUsedBytes = jsHeapUsedBytes;
+    this.domNodes = domNodes;
+    this.documents = documents;
+    this.processMemoryBytes = processMemoryBytes;
+    this.cpuSeconds = cpuSeconds;
+    this.cpuPercent = cpuPercent;
+  }
+
+  /** What the sample was taken for, e.g. the test name. */
+  public String getLabel() {
+    return label;
+  }
+
+  public Long getJsHeapUsedBytes() {
+    return jsHeapUsedBytes;
+  }
+
+  /** DOM nodes alive in the renderer, including detached ones not yet collected. */
+  public Long getDomNodes() {
+    return domNodes;
+  }
+
+  public Long getDocuments() {
+    return documents;
+  }
+
+  /** Memory of all browser processes (see {@link ProcessTree}). */
+  public Long getProcessMemoryBytes() {
+    return processMemoryBytes;
+  }
+
+  /** CPU time used by all browser processes since launch. */
+  public Double getCpuSeconds() {
+    return cpuSeconds;
+  }
+
+  /** CPU use since the previous sample of the session, as a percentage of one core. */
+  public Double getCpuPercent() {
+    return cpuPercent;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s: heap %s MiB, %s DOM nodes, processes %s MiB, CPU %s%%",
+        label,
+        jsHeapUsedBytes == null ? "n/a" : jsHeapUsedBytes / (1024 * 1024),
+        domNodes == null ? "n/a" : domNodes,
+        processMemoryBytes == null ? "n/a" : processMemoryBytes / (1024 * 1024),
+        cpuPercent == null ? "n/a" : Math.round(cpuPercent));
+  }
+}
@@ -0,0 +1,150 @@
+package demoblaze.utils;
+
+import demoblaze.config.Config;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * RetryExecutor - Retries element interactions that fail with known transient exceptions, using
+ * jittered exponential backoff starting at {@link Config#RETRY_WAIT_MS} for up to {@link
+ * Config#MAX_RETRIES} retries. All retries in the JVM draw from one shared time budget, so a
+ * persistently broken page fails fast instead of retrying its way through the suite.
+ */
+public class RetryExecutor {
+  private static final Logger logger = LoggerFactory.getLogger(RetryExecutor.class);
+
+  /**
+   * Exceptions worth retrying: the element was there but briefly unusable. Covers {@code
+   * ElementClickInterceptedException}, a subclass of {@code ElementNotInteractableException}.
+   */
+  private static final List<Class<? extends Throwable>> RETRYABLE =
+      List.of(StaleElementReferenceException.class, ElementNotInteractableException.class);
+
+  private static final AtomicLong budgetSpentMillis = new AtomicLong();
+  private static final AtomicInteger retryCount = new AtomicInteger();
+
+  private RetryExecutor() {
+    // Private constructor to prevent instantiation
+  }
+
+  /** Runs an interaction, retrying it on transient failures. */
+  public static void run(String action, Runnable interaction) {
+    execute(action, asSupplier(interaction));
+  }
+
+  /** Runs an interaction and returns its result, retrying it on transient failures. */
+  public static <T> T execute(String action, Supplier<T> interaction) {
+    return execute(action, interaction, true);
+  }
+
+  /**
+   * Runs an interaction on an element reference the caller already holds. A stale reference stays
+   * stale however often it is retried, so only the other transient failures are retried; locate the
+   * element by {@code By} inside the interaction to survive re-renders.
+   */
+  public static void runOnElement(String action, Runnable interaction) {
+    execute(action, asSupplier(interaction), false);
+  }
+
+  /** Like {@link #runOnElement}, returning the interaction's result. */
+  public static <T> T executeOnElement(String action, Supplier<T> interaction) {
+    return execute(action, interaction, false);
+  }
+
+  private static <T> T execute(String action, Supplier<T> interaction, boolean retryStale) {
+    int attempt = 0;
+    while (true) {
+      long start = System.currentTimeMillis();
+      try {
+        return interaction.get();
+      } catch (RuntimeException e) {
+        boolean retryable =
+            isRetryable(e) && (retryStale || !(e instanceof StaleElementReferenceException));
+        if (!retryable || attempt >= Config.MAX_RETRIES) {
+          throw e;
+        }
+        long backoff = backoffMillis(attempt);
+        // A retried attempt's own duration counts against the budget too
+        if (!consumeBudget(System.currentTimeMillis() - start + backoff)) {
+          logger.warn("Retry budget exhausted, not retrying {}", action);
+          throw e;
+        }
+        attempt++;
+        retryCount.incrementAndGet();
+        LiveMetrics.retried("interaction");
+        logger.info(
+            "Retrying {} (attempt {}/{}) in {} ms after {}",
+            action,
+            attempt,
+            Config.MAX_RETRIES,
+            backoff,
+            e.getClass().getSimpleName());
+        sleep(backoff);
+      }
+    }
+  }
+
+  private static Supplier<Void> asSupplier(Runnable interaction) {
+    return () -> {
+      interaction.run();
+      return null;
+    };
+  }
+
+  /** Checks whether a failure is one of the whitelisted transient exceptions. */
+  public static boolean isRetryable(Throwable throwable) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      for (Class<? extends Throwable> retryable : RETRYABLE) {
+        if (retryable.isInstance(cause)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reserves time from the suite-wide retry budget.
+   *
+   * @return false if the budget cannot cover it
+   */
+  public static boolean consumeBudget(long millis) {
+    long spent = budgetSpentMillis.addAndGet(millis);
+    if (spent > Config.RETRY_BUDGET_MS) {
+      budgetSpentMillis.addAndGet(-millis);
+      return false;
+    }
+    return true;
+  }
+
+  /** Total interaction retries performed in this JVM. */
+  public static int getRetryCount() {
+    return retryCount.get();
+  }
+
+  /** Retry budget already spent, in milliseconds. */
+  public static long getBudgetSpentMillis() {
+    return budgetSpentMillis.get();
+  }
+
+  /** Exponential backoff with jitter: a random delay between half and all of base * 2^attempt. */
+  private static long backoffMillis(int attempt) {
+    long ceiling = Config.RETRY_WAIT_MS << Math.min(attempt, 10);
+    return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,405 @@
+package demoblaze.utils;
+
+import demoblaze.config.Config;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scenario - An end-to-end scenario split into steps that declare the values they need and the
+ * value they produce (a logged-in session, cart contents, a receipt). Steps run as soon as their
+ * inputs exist, so independent ones overlap on separate browser sessions, up to {@link
+ * Config#SCENARIO_SESSIONS} at a time. A logged-in state moves between sessions as a {@link
+ * SessionSnapshot}.
+ *
+ * <p>Completed step outputs are kept for the rest of the JVM run. If a step fails with a transient
+ * error (see {@link RetryExecutor#isRetryable}), the scenario resumes after the last successful
+ * steps instead of starting over, up to {@link Config#SCENARIO_ATTEMPTS} attempts within the retry
+ * budget; running a failed scenario again (e.g. as a test retry) resumes the same way, and a
+ * successful run discards its checkpoint. Steps whose side effects must not be applied twice (e.g.
+ * adding to a cart) are added with {@link #stepWithoutCheckpoint}. Resuming can be turned off with
+ * {@code -Dscenario.resume=false}. Checkpoints are kept per browser, so a browser matrix runs the
+ * same scenario independently in each browser, and extra sessions are opened in the browser of the
+ * scenario's own driver.
+ */
+public class Scenario {
+  private static final Logger logger = LoggerFactory.getLogger(Scenario.class);
+
+  // Outputs and completed step names of scenarios that failed earlier in this JVM, by name@browser
+  private static final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+
+  private final String name;
+  private final List<Step> steps = new ArrayList<>();
+
+  private Scenario(String name) {
+    this.name = name;
+  }
+
+  /** Starts a scenario; the name identifies its checkpoint for resuming. */
+  public static Scenario named(String name) {
+    return new Scenario(name);
+  }
+
+  /** Body of a step. Returns the step's output, or null for steps that produce none. */
+  @FunctionalInterface
+  public interface Action {
+    Object run(Context context) throws Exception;
+  }
+
+  /**
+   * Adds a step.
+   *
+   * @param inputs keys of the outputs this step waits for
+   * @param output key under which the step's result is published, or null
+   */
+  public Scenario step(String stepName, List<String> inputs, String output, Action action) {
+    steps.add(new Step(stepName, inputs, output, action, true));
+    return this;
+  }
+
+  /**
+   * Adds a step that a resumed attempt does not skip: it runs again, with the steps it depends on
+   * that were added the same way, whenever a step still to run needs its output. Use it for steps
+   * whose effect does not survive a failure as a whole, e.g. building a cart that a reset step
+   * empties first, so a resume rebuilds the cart instead of adding to it twice.
+   */
+  public Scenario stepWithoutCheckpoint(
+      String stepName, List<String> inputs, String output, Action action) {
+    steps.add(new Step(stepName, inputs, output, action, false));
+    return this;
+  }
+
+  /**
+   * Runs every step not completed by an earlier attempt, starting with the given driver and opening
+   * more sessions through {@link BrowserFactory} while independent steps can overlap.
+   *
+   * @param driver the caller's driver, used first and left open
+   * @return every step output by key
+   */
+  public Map<String, Object> run(WebDriver driver) {
+    validate();
+    String browser = BrowserFactory.browserOf(driver);
+    String checkpointKey = name + "@" + browser;
+    Checkpoint checkpoint =
+        Config.SCENARIO_RESUME
+            ? checkpoints.computeIfAbsent(checkpointKey, key -> new Checkpoint())
+            : new Checkpoint();
+    if (!checkpoint.completed.isEmpty()) {
+      logger.info(
+          "Resuming scenario '{}' after {} completed steps {}",
+          name,
+          checkpoint.completed.size(),
+          checkpoint.completed);
+    }
+
+    for (int attempt = 1; ; attempt++) {
+      long start = System.currentTimeMillis();
+      try {
+        attempt(driver, browser, checkpoint);
+        break;
+      } catch (RuntimeException | Error e) {
+        if (!Config.SCENARIO_RESUME
+            || attempt >= Config.SCENARIO_ATTEMPTS
+            || !RetryExecutor.isRetryable(e)
+            || !RetryExecutor.consumeBudget(System.currentTimeMillis() - start)) {
+          throw e;
+        }
+        LiveMetrics.retried("scenario");
+        logger.warn(
+            "Resuming scenario '{}' (attempt {}/{}) after {}",
+            name,
+            attempt + 1,
+            Config.SCENARIO_ATTEMPTS,
+            e.getClass().getSimpleName());
+      }
+    }
+    checkpoints.remove(checkpointKey);
+    return Collections.unmodifiableMap(checkpoint.outputs);
+  }
+
+  /** Runs the steps not completed yet, on sessions opened for this attempt only. */
+  private void attempt(WebDriver driver, String browser, Checkpoint checkpoint) {
+    Run run = new Run(driver, browser, checkpoint);
+    ExecutorService pool =
+        Executors.newFixedThreadPool(
+            Math.max(1, Config.SCENARIO_SESSIONS),
+            task -> {
+              Thread thread = new Thread(task, "scenario-" + name);
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      run.execute(new ExecutorCompletionService<>(pool));
+    } finally {
+      pool.shutdownNow();
+      run.closeSessions();
+    }
+  }
+
+  /** Checks that every input is produced by exactly one step. */
+  private void validate() {
+    Map<String, String> producers = new LinkedHashMap<>();
+    for (Step step : steps) {
+      if (step.output != null && producers.put(step.output, step.name) != null) {
+        throw new IllegalArgumentException(
+            "Output '" + step.output + "' is produced by more than one step");
+      }
+    }
+    for (Step step : steps) {
+      for (String input : step.inputs) {
+        if (!producers.containsKey(input)) {
+          throw new IllegalArgumentException(
+              "Step '" + step.name + "' needs '" + input + "', which no step produces");
+        }
+      }
+    }
+  }
+
+  private static final class Step {
+    private final String name;
+    private final List<String> inputs;
+    private final String output;
+    private final Action action;
+    private final boolean checkpointed;
+
+    private Step(
+        String name, List<String> inputs, String output, Action action, boolean checkpointed) {
+      this.name = name;
+      this.inputs = List.copyOf(inputs);
+      this.output = output;
+      this.action = action;
+      this.checkpointed = checkpointed;
+    }
+  }
+
+  private static final class Checkpoint {
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+    private final Map<String, Object> outputs = new ConcurrentHashMap<>();
+  }
+
+  /** One execution of the scenario: its sessions and scheduling state. */
+  private final class Run {
+    private final WebDriver primary;
+    private final String browser;
+    private final Checkpoint checkpoint;
+    private final Deque<WebDriver> idle = new ConcurrentLinkedDeque<>();
+    private final List<WebDriver> opened = Collections.synchronizedList(new ArrayList<>());
+    // Snapshot each session currently holds, so a session is not restored into needlessly
+    private final Map<WebDriver, SessionSnapshot> sessions =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private Run(WebDriver primary, String browser, Checkpoint checkpoint) {
+      this.primary = primary;
+      this.browser = browser;
+      this.checkpoint = checkpoint;
+      idle.add(primary);
+    }
+
+    private void execute(CompletionService<Step> completion) {
+      List<Step> pending = stepsToRun();
+      Map<Future<Step>, Step> running = new LinkedHashMap<>();
+      Throwable failure = null;
+      Step failedStep = null;
+
+      while (true) {
+        if (failure == null) {
+          for (Step step : new ArrayList<>(pending)) {
+            if (checkpoint.outputs.keySet().containsAll(step.inputs)) {
+              pending.remove(step);
+              running.put(completion.submit(() -> runStep(step)), step);
+            }
+          }
+        }
+        if (running.isEmpty()) {
+          break;
+        }
+        Future<Step> done;
+        try {
+          done = completion.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while running scenario " + name, e);
+        }
+        Step step = running.remove(done);
+        try {
+          done.get();
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+            failedStep = step;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while running scenario " + name, e);
+        }
+      }
+
+      if (failure != null) {
+        logger.error(
+            "Scenario '{}' failed at step '{}'; {} completed steps kept for resume",
+            name,
+            failedStep.name,
+            checkpoint.completed.size());
+        if (failure instanceof RuntimeException) {
+          throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+          throw (Error) failure;
+        }
+        throw new IllegalStateException(
+            "Scenario " + name + " failed at step " + failedStep.name, failure);
+      }
+      if (!pending.isEmpty()) {
+        throw new IllegalStateException(
+            "Scenario "
+                + name
+                + " has steps whose inputs form a cycle: "
+                + pending.stream().map(step -> step.name).collect(Collectors.toList()));
+      }
+    }
+
+    /**
+     * Steps not completed yet, plus completed steps without a checkpoint whose output one of those
+     * still needs, in declaration order. Outputs about to be produced again are dropped, so no step
+     * starts on a value from an earlier attempt.
+     */
+    private List<Step> stepsToRun() {
+      Map<String, Step> producers = new LinkedHashMap<>();
+      steps.stream()
+          .filter(step -> step.output != null)
+          .forEach(step -> producers.put(step.output, step));
+      Set<Step> toRun =
+          steps.stream()
+              .filter(step -> !checkpoint.completed.contains(step.name))
+              .collect(Collectors.toSet());
+      Deque<Step> unresolved = new ArrayDeque<>(toRun);
+      while (!unresolved.isEmpty()) {
+        for (String input : unresolved.poll().inputs) {
+          Step producer = producers.get(input);
+          if (!producer.checkpointed && toRun.add(producer)) {
+            unresolved.add(producer);
+          }
+        }
+      }
+      toRun.stream()
+          .filter(step -> step.output != null)
+          .forEach(step -> checkpoint.outputs.remove(step.output));
+      return steps.stream().filter(toRun::contains).collect(Collectors.toList());
+    }
+
+    private Step runStep(Step step) throws Exception {
+      long start = System.nanoTime();
+      TestLogger.testStep("Scenario '%s' step: %s", name, step.name);
+      Context context = new Context(this);
+      try {
+        Object output = step.action.run(context);
+        if (step.output != null) {
+          if (output == null) {
+            throw new IllegalStateException("Step '" + step.name + "' produced no output");
+          }
+          checkpoint.outputs.put(step.output, output);
+        }
+        checkpoint.completed.add(step.name);
+        logger.info(
+            "Step '{}' finished in {} ms",
+            step.name,
+            Math.round((System.nanoTime() - start) / 1e6));
+        return step;
+      } finally {
+        context.releaseSession();
+      }
+    }
+
+    private WebDriver leaseSession() {
+      WebDriver driver = idle.pollFirst();
+      if (driver == null) {
+        driver = BrowserFactory.acquireDriver(browser);
+        opened.add(driver);
+        logger.info("Scenario '{}' opened another session ({} extra)", name, opened.size());
+      }
+      return driver;
+    }
+
+    private void closeSessions() {
+      synchronized (opened) {
+        opened.forEach(BrowserFactory::releaseDriver);
+        opened.clear();
+      }
+    }
+  }
+
+  /** What a running step can access: the outputs of earlier steps and a browser session. */
+  public final class Context {
+    private final Run run;
+    private WebDriver driver;
+
+    private Context(Run run) {
+      this.run = run;
+    }
+
+    /** An output of an earlier step. */
+    public <T> T get(String key, Class<T> type) {
+      return type.cast(run.checkpoint.outputs.get(key));
+    }
+
+    /**
+     * The browser session this step runs on, leased on first use: the scenario's own driver if it
+     * is free, otherwise another session, which may hold state left by an earlier step.
+     */
+    public WebDriver driver() {
+      if (driver == null) {
+        driver = run.leaseSession();
+      }
+      return driver;
+    }
+
+    /** A browser session carrying the session snapshot published under {@code key}. */
+    public WebDriver driverWithSession(String key) {
+      SessionSnapshot snapshot = get(key, SessionSnapshot.class);
+      WebDriver session = driver();
+      if (run.sessions.get(session) != snapshot) {
+        snapshot.restore(session);
+        run.sessions.put(session, snapshot);
+      }
+      return session;
+    }
+
+    /** Snapshots this step's session, for steps that hand a logged-in state to later ones. */
+    public SessionSnapshot captureSession(String snapshotName, Duration ttl) {
+      SessionSnapshot snapshot = SessionSnapshot.capture(driver(), snapshotName, ttl);
+      run.sessions.put(driver(), snapshot);
+      return snapshot;
+    }
+
+    private void releaseSession() {
+      if (driver != null) {
+        // Hand the scenario's own driver out first, so sequential steps stay on it
+        if (driver == run.primary) {
+          run.idle.addFirst(driver);
+        } else {
+          run.idle.addLast(driver);
+        }
+        driver = null;
+      }
+    }
+  }
+}
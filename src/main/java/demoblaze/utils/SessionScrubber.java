@@ -0,0 +1,123 @@
+package demoblaze.utils;
+
+import demoblaze.config.Config;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SessionScrubber - Resets a live WebDriver session to a clean state so it can be handed to the
+ * next test class instead of being quit and relaunched. Clears alerts, extra windows, storage and
+ * cookies on the application origin, verifies them there, then parks the remaining window on a
+ * blank page.
+ *
+ * <p>WebDriver only reaches cookies and storage of the origin currently loaded, so state a test
+ * left on other origins (third-party frames, other sites it navigated to) survives scrubbing. Tests
+ * that depend on such state should use the "restart" lifecycle.
+ */
+public class SessionScrubber {
+  private static final Logger logger = LoggerFactory.getLogger(SessionScrubber.class);
+
+  private static final String BLANK_PAGE = "about:blank";
+
+  private static final String CLEAR_STORAGE_SCRIPT =
+      "try { window.localStorage.clear(); } catch (e) {}"
+          + "try { window.sessionStorage.clear(); } catch (e) {}";
+
+  private static final String STORAGE_SIZE_SCRIPT =
+      "try { return window.localStorage.length + window.sessionStorage.length; }"
+          + " catch (e) { return -1; }";
+
+  private SessionScrubber() {
+    // Private constructor to prevent instantiation
+  }
+
+  /**
+   * Scrubs the session in place.
+   *
+   * @return true if the session was scrubbed and verified clean, false if it should be discarded
+   */
+  public static boolean scrub(WebDriver driver) {
+    try {
+      dismissAlerts(driver);
+      closeExtraWindows(driver);
+      if (!onAppOrigin(driver)) {
+        driver.navigate().to(Config.BASE_URL);
+        dismissAlerts(driver);
+      }
+      ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+      driver.manage().deleteAllCookies();
+      if (!isClean(driver)) {
+        return false;
+      }
+      driver.navigate().to(BLANK_PAGE);
+      AlertRecorder.forDriver(driver).ifPresent(AlertRecorder::clear);
+      return true;
+    } catch (Exception e) {
+      logger.warn("Session scrub failed: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Verifies that no extra windows are open and that the origin currently loaded has no cookies,
+   * localStorage or sessionStorage left. Call it on the application origin; on a blank page there
+   * is nothing to check.
+   */
+  public static boolean isClean(WebDriver driver) {
+    if (driver.getWindowHandles().size() != 1) {
+      logger.debug("Session not clean: extra windows open");
+      return false;
+    }
+    if (!driver.manage().getCookies().isEmpty()) {
+      logger.debug("Session not clean: cookies remain");
+      return false;
+    }
+    Object storageItems = ((JavascriptExecutor) driver).executeScript(STORAGE_SIZE_SCRIPT);
+    if (!(storageItems instanceof Number) || ((Number) storageItems).intValue() != 0) {
+      logger.debug("Session not clean: storage items remain ({})", storageItems);
+      return false;
+    }
+    return true;
+  }
+
+  /** Whether the current window shows a page of the application under test. */
+  private static boolean onAppOrigin(WebDriver driver) {
+    String url = driver.getCurrentUrl();
+    return url != null && URI.create(Config.BASE_URL).getHost().equals(hostOf(url));
+  }
+
+  private static String hostOf(String url) {
+    try {
+      return URI.create(url).getHost();
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /** Accepts any pending native alerts. */
+  private static void dismissAlerts(WebDriver driver) {
+    for (int i = 0; i < 3; i++) {
+      try {
+        driver.switchTo().alert().accept();
+      } catch (NoAlertPresentException e) {
+        return;
+      }
+    }
+  }
+
+  /** Closes every window except the first one and switches back to it. */
+  private static void closeExtraWindows(WebDriver driver) {
+    List<String> handles = new ArrayList<>(driver.getWindowHandles());
+    for (int i = 1; i < handles.size(); i++) {
+      driver.switchTo().window(handles.get(i));
+      driver.close();
+    }
+    driver.switchTo().window(handles.get(0));
+  }
+}
@@ -0,0 +1,284 @@
+package demoblaze.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SessionSnapshot - Named copy of a session's state on one origin: its cookies, localStorage and
+ * sessionStorage, and the page it was on. Capture one after an expensive setup (sign-up, login,
+ * filling the cart) and restore it into any later driver instead of repeating the setup.
+ *
+ * <p>Snapshots are kept in memory and, when {@link Config#SESSION_SNAPSHOT_DIR} is set, on disk so
+ * later runs can reuse them. A snapshot expires after its time-to-live or as soon as one of its
+ * cookies does; {@link #restoreOrBuild} then runs the setup again and takes a fresh snapshot, as it
+ * does when a restored session fails the caller's validity check (e.g. a server-side token the
+ * cookies still carry has been revoked).
+ */
+public class SessionSnapshot {
+  private static final Logger logger = LoggerFactory.getLogger(SessionSnapshot.class);
+
+  private static final Gson gson = new Gson();
+  private static final Map<String, SessionSnapshot> snapshots = new ConcurrentHashMap<>();
+
+  // Cookies and storage can only be written for the origin of the loaded document; a small static
+  // resource on that origin loads much faster than a full page
+  private static final String ORIGIN_RESOURCE = "favicon.ico";
+
+  private static final String READ_STORAGE_SCRIPT =
+      "function dump(s) { var o = {};"
+          + "  for (var i = 0; i < s.length; i++) { o[s.key(i)] = s.getItem(s.key(i)); }"
+          + "  return o; }"
+          + "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+
+  // The callbacks have arguments of their own, so the script's are taken first
+  private static final String WRITE_STORAGE_SCRIPT =
+      "var local = arguments[0], session = arguments[1];"
+          + "window.localStorage.clear(); window.sessionStorage.clear();"
+          + "Object.keys(local).forEach(function (k) { window.localStorage.setItem(k, local[k]); });"
+          + "Object.keys(session).forEach(function (k) {"
+          + "  window.sessionStorage.setItem(k, session[k]); });";
+
+  private final String name;
+  private final String url;
+  private final long capturedAtMillis;
+  private final long expiresAtMillis;
+  private final List<Map<String, Object>> cookies;
+  private final Map<String, String> localStorage;
+  private final Map<String, String> sessionStorage;
+
+  private SessionSnapshot(
+      String name,
+      String url,
+      long capturedAtMillis,
+      long expiresAtMillis,
+      List<Map<String, Object>> cookies,
+      Map<String, String> localStorage,
+      Map<String, String> sessionStorage) {
+    this.name = name;
+    this.url = url;
+    this.capturedAtMillis = capturedAtMillis;
+    this.expiresAtMillis = expiresAtMillis;
+    this.cookies = cookies;
+    this.localStorage = localStorage;
+    this.sessionStorage = sessionStorage;
+  }
+
+  /**
+   * Captures the state of the driver's current origin and stores it under a name, replacing any
+   * earlier snapshot of that name.
+   *
+   * @param ttl how long the snapshot may be restored; cookie expiry can end it sooner
+   */
+  @SuppressWarnings("unchecked")
+  public static SessionSnapshot capture(WebDriver driver, String name, Duration ttl) {
+    Map<String, Object> storage =
+        (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+    long now = System.currentTimeMillis();
+    long expiresAt = now + ttl.toMillis();
+    List<Map<String, Object>> cookies = new ArrayList<>();
+    for (Cookie cookie : driver.manage().getCookies()) {
+      cookies.add(toJson(cookie));
+      if (cookie.getExpiry() != null) {
+        expiresAt = Math.min(expiresAt, cookie.getExpiry().getTime());
+      }
+    }
+    SessionSnapshot snapshot =
+        new SessionSnapshot(
+            name,
+            driver.getCurrentUrl(),
+            now,
+            expiresAt,
+            cookies,
+            (Map<String, String>) storage.get("local"),
+            (Map<String, String>) storage.get("session"));
+    snapshots.put(name, snapshot);
+    snapshot.save();
+    logger.info(
+        "Session snapshot '{}' captured ({} cookies, {} storage items, valid until {})",
+        name,
+        cookies.size(),
+        snapshot.localStorage.size() + snapshot.sessionStorage.size(),
+        Instant.ofEpochMilli(expiresAt));
+    return snapshot;
+  }
+
+  /** Finds an unexpired snapshot in memory or on disk; expired ones are discarded. */
+  public static Optional<SessionSnapshot> find(String name) {
+    SessionSnapshot snapshot = snapshots.computeIfAbsent(name, SessionSnapshot::load);
+    if (snapshot != null && snapshot.isExpired()) {
+      logger.info("Session snapshot '{}' expired", name);
+      invalidate(name);
+      return Optional.empty();
+    }
+    return Optional.ofNullable(snapshot);
+  }
+
+  /** Discards a snapshot from memory and disk. */
+  public static void invalidate(String name) {
+    snapshots.remove(name);
+    Optional.ofNullable(file(name))
+        .ifPresent(
+            file -> {
+              try {
+                Files.deleteIfExists(file);
+              } catch (IOException e) {
+                logger.warn("Could not delete session snapshot {}: {}", file, e.getMessage());
+              }
+            });
+  }
+
+  /**
+   * Brings a driver into the state of a named snapshot, building that state first if needed. The
+   * snapshot is restored if one is available and the restored session passes {@code isValid};
+   * otherwise {@code build} runs on the driver and its result is captured for the next caller.
+   *
+   * @param build performs the expensive setup, leaving the driver in the state to snapshot
+   * @param isValid checks a restored session, e.g. that the user is still shown as logged in
+   * @return true if the snapshot was restored, false if the state was built
+   */
+  public static boolean restoreOrBuild(
+      WebDriver driver, String name, Duration ttl, Runnable build, Predicate<WebDriver> isValid) {
+    Optional<SessionSnapshot> snapshot = find(name);
+    if (snapshot.isPresent()) {
+      snapshot.get().restore(driver);
+      if (isValid.test(driver)) {
+        return true;
+      }
+      logger.info("Session restored from snapshot '{}' is no longer valid, rebuilding", name);
+      invalidate(name);
+      driver.manage().deleteAllCookies();
+    }
+    build.run();
+    capture(driver, name, ttl);
+    return false;
+  }
+
+  /** Replaces the driver's cookies and storage with the snapshot and opens the captured page. */
+  public void restore(WebDriver driver) {
+    long start = System.nanoTime();
+    driver.navigate().to(URI.create(url).resolve("/" + ORIGIN_RESOURCE).toString());
+    driver.manage().deleteAllCookies();
+    for (Map<String, Object> cookie : cookies) {
+      driver.manage().addCookie(toCookie(cookie));
+    }
+    ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, localStorage, sessionStorage);
+    driver.navigate().to(url);
+    logger.info(
+        "Session snapshot '{}' restored in {} ms",
+        name,
+        Math.round((System.nanoTime() - start) / 1e6));
+  }
+
+  /** Whether the time-to-live or the earliest cookie expiry has passed. */
+  public boolean isExpired() {
+    return System.currentTimeMillis() >= expiresAtMillis;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Page the driver was on when the snapshot was captured. */
+  public String getUrl() {
+    return url;
+  }
+
+  public Instant getCapturedAt() {
+    return Instant.ofEpochMilli(capturedAtMillis);
+  }
+
+  public Instant getExpiresAt() {
+    return Instant.ofEpochMilli(expiresAtMillis);
+  }
+
+  /** Cookie as a map that survives a JSON round trip; the expiry is kept in epoch seconds. */
+  private static Map<String, Object> toJson(Cookie cookie) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("name", cookie.getName());
+    json.put("value", cookie.getValue());
+    json.put("domain", cookie.getDomain());
+    json.put("path", cookie.getPath());
+    json.put("secure", cookie.isSecure());
+    json.put("httpOnly", cookie.isHttpOnly());
+    json.put("sameSite", cookie.getSameSite());
+    if (cookie.getExpiry() != null) {
+      json.put("expiry", cookie.getExpiry().getTime() / 1000);
+    }
+    return json;
+  }
+
+  private static Cookie toCookie(Map<String, Object> json) {
+    Cookie.Builder builder =
+        new Cookie.Builder((String) json.get("name"), (String) json.get("value"))
+            .path((String) json.getOrDefault("path", "/"))
+            .isSecure(Boolean.TRUE.equals(json.get("secure")))
+            .isHttpOnly(Boolean.TRUE.equals(json.get("httpOnly")));
+    if (json.get("domain") != null) {
+      builder.domain((String) json.get("domain"));
+    }
+    if (json.get("expiry") instanceof Number) {
+      builder.expiresOn(new Date(((Number) json.get("expiry")).longValue() * 1000));
+    }
+    if (json.get("sameSite") != null) {
+      builder.sameSite((String) json.get("sameSite"));
+    }
+    return builder.build();
+  }
+
+  private void save() {
+    Path file = file(name);
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.createDirectories(file.getParent());
+      Files.write(file, gson.toJson(this).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      logger.warn("Could not save session snapshot {}: {}", file, e.getMessage());
+    }
+  }
+
+  private static SessionSnapshot load(String name) {
+    Path file = file(name);
+    if (file == null || !Files.isRegularFile(file)) {
+      return null;
+    }
+    try {
+      return gson.fromJson(Files.readString(file), SessionSnapshot.class);
+    } catch (IOException | JsonParseException e) {
+      logger.warn("Ignoring unreadable session snapshot {}: {}", file, e.getMessage());
+      return null;
+    }
+  }
+
+  /** Snapshot file, or null when snapshots are kept in memory only. */
+  private static Path file(String name) {
+    if (Config.SESSION_SNAPSHOT_DIR.isEmpty()) {
+      return null;
+    }
+    return Paths.get(
+        Config.SESSION_SNAPSHOT_DIR, name.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+  }
+}
@@ -0,0 +1,148 @@
+package demoblaze.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * WaitHistory - Remembers how long explicit waits took to succeed, per (page, locator, condition),
+ * in a history file shared across runs. In adaptive mode a wait's timeout becomes the recorded
+ * p99.9 latency times a safety factor, capped by {@link Config#EXPLICIT_WAIT}, so a genuinely
+ * missing element fails in seconds instead of after the full fixed timeout.
+ *
+ * <p>Modes ({@code -Dwaits.adaptive}): "off" (default), "learn" (record only), "on" (record and
+ * apply).
+ */
+public class WaitHistory {
+  private static final Logger logger = LoggerFactory.getLogger(WaitHistory.class);
+
+  private static final Gson gson = new Gson();
+  private static final Type HISTORY_TYPE = new TypeToken<Map<String, List<Long>>>() {}.getType();
+
+  private static final int MAX_SAMPLES = 200;
+  private static final int MIN_SAMPLES = 20;
+  private static final double PERCENTILE = 0.999;
+  private static final double SAFETY_FACTOR = 3.0;
+  private static final long MIN_TIMEOUT_MILLIS = 2000;
+
+  private static final Map<String, Deque<Long>> samples = new ConcurrentHashMap<>();
+
+  static {
+    if (isRecording()) {
+      load();
+      Runtime.getRuntime().addShutdownHook(new Thread(WaitHistory::save, "wait-history-save"));
+    }
+  }
+
+  private WaitHistory() {
+    // Private constructor to prevent instantiation
+  }
+
+  /** Whether wait latencies are being recorded. */
+  public static boolean isRecording() {
+    return "learn".equals(Config.ADAPTIVE_WAITS) || isAdaptive();
+  }
+
+  /** Whether learned timeouts replace the fixed explicit wait. */
+  public static boolean isAdaptive() {
+    return "on".equals(Config.ADAPTIVE_WAITS);
+  }
+
+  /** Builds the history key of a wait. */
+  public static String key(String page, Object target, String condition) {
+    return page + "|" + target + "|" + condition;
+  }
+
+  /**
+   * Timeout for a wait: learned from history in adaptive mode once enough samples exist, otherwise
+   * the fixed {@link Config#EXPLICIT_WAIT}.
+   */
+  public static Duration timeoutFor(String key) {
+    long ceiling = Config.EXPLICIT_WAIT * 1000L;
+    Deque<Long> history = samples.get(key);
+    if (!isAdaptive() || history == null) {
+      return Duration.ofMillis(ceiling);
+    }
+    List<Long> sorted;
+    synchronized (history) {
+      if (history.size() < MIN_SAMPLES) {
+        return Duration.ofMillis(ceiling);
+      }
+      sorted = new ArrayList<>(history);
+    }
+    Collections.sort(sorted);
+    long percentile = sorted.get((int) Math.min(sorted.size() - 1, sorted.size() * PERCENTILE));
+    long learned = Math.max(MIN_TIMEOUT_MILLIS, (long) (percentile * SAFETY_FACTOR));
+    return Duration.ofMillis(Math.min(ceiling, learned));
+  }
+
+  /** Records the latency of a successful wait. */
+  public static void record(String key, long millis) {
+    if (!isRecording()) {
+      return;
+    }
+    Deque<Long> history = samples.computeIfAbsent(key, k -> new ArrayDeque<>());
+    synchronized (history) {
+      history.addLast(millis);
+      if (history.size() > MAX_SAMPLES) {
+        history.removeFirst();
+      }
+    }
+  }
+
+  private static void load() {
+    Path file = Paths.get(Config.WAIT_HISTORY_FILE);
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      Map<String, List<Long>> stored = gson.fromJson(reader, HISTORY_TYPE);
+      if (stored != null) {
+        stored.forEach((key, values) -> samples.put(key, new ArrayDeque<>(values)));
+      }
+      logger.info("Loaded wait history for {} waits from {}", samples.size(), file);
+    } catch (Exception e) {
+      logger.warn("Could not load wait history {}: {}", file, e.getMessage());
+    }
+  }
+
+  private static void save() {
+    Path file = Paths.get(Config.WAIT_HISTORY_FILE);
+    Map<String, List<Long>> snapshot = new HashMap<>();
+    samples.forEach(
+        (key, history) -> {
+          synchronized (history) {
+            snapshot.put(key, new ArrayList<>(history));
+          }
+        });
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        gson.toJson(snapshot, HISTORY_TYPE, writer);
+      }
+    } catch (IOException e) {
+      logger.warn("Could not save wait history {}: {}", file, e.getMessage());
+    }
+  }
+}
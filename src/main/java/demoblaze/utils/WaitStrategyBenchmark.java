@@ -0,0 +1,179 @@
+package demoblaze.utils;
+
+import com.google.gson.GsonBuilder;
+import demoblaze.config.Config;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * WaitStrategyBenchmark - Compares polling waits ({@link WebDriverWait}, as used by {@link
+ * WaitUtils} by default) with event-driven waits ({@link MutationWaits}) on a local page whose
+ * elements appear, change text or disappear after a random delay. For each condition it reports how
+ * long after the change each strategy noticed it (median and p95) and how many WebDriver commands
+ * each wait sent. Writes {@code target/benchmark/wait-strategies.json}.
+ *
+ * <p>Run with: {@code mvn compile exec:java -Dexec.mainClass=demoblaze.utils.WaitStrategyBenchmark
+ * -Dheadless=true -Dbenchmark.iterations=30}
+ */
+public class WaitStrategyBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(WaitStrategyBenchmark.class);
+
+  private static final By TARGET = By.id("target");
+  private static final Duration TIMEOUT = Duration.ofSeconds(Config.EXPLICIT_WAIT);
+
+  // Each scenario prepares the page, then schedules one DOM change after arguments[0] ms
+  private static final String PAGE =
+      "data:text/html,<html><body><div id='root'></div></body></html>";
+  private static final Map<String, String[]> CHANGES = new LinkedHashMap<>();
+
+  static {
+    CHANGES.put(
+        "visible",
+        new String[] {
+          "document.getElementById('root').innerHTML = '';",
+          "setTimeout(function () { var d = document.createElement('div'); d.id = 'target';"
+              + " d.textContent = 'ready'; document.getElementById('root').appendChild(d); },"
+              + " arguments[0]);"
+        });
+    CHANGES.put(
+        "text",
+        new String[] {
+          "document.getElementById('root').innerHTML = '<div id=\"target\">loading</div>';",
+          "setTimeout(function () { document.getElementById('target').textContent = 'ready'; },"
+              + " arguments[0]);"
+        });
+    CHANGES.put(
+        "invisible",
+        new String[] {
+          "document.getElementById('root').innerHTML = '<div id=\"target\">ready</div>';",
+          "setTimeout(function () { document.getElementById('target').remove(); },"
+              + " arguments[0]);"
+        });
+  }
+
+  private WaitStrategyBenchmark() {
+    // Private constructor to prevent instantiation
+  }
+
+  public static void main(String[] args) throws IOException {
+    int iterations = Integer.getInteger("benchmark.iterations", 30);
+    AtomicInteger commands = new AtomicInteger();
+    WebDriver raw = BrowserFactory.createDriver();
+    WebDriver driver =
+        new EventFiringDecorator<>(
+                new WebDriverListener() {
+                  @Override
+                  public void beforeAnyCall(Object target, Method method, Object[] args) {
+                    commands.incrementAndGet();
+                  }
+                })
+            .decorate(raw);
+    // Polling waits must not block in implicit element lookups
+    raw.manage().timeouts().implicitlyWait(Duration.ZERO);
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("browser", Config.BROWSER);
+    report.put("iterations", iterations);
+    try {
+      driver.get(PAGE);
+      Random random = new Random(42);
+      for (Map.Entry<String, String[]> change : CHANGES.entrySet()) {
+        String condition = change.getKey();
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String strategy : List.of("poll", "observe")) {
+          List<Double> lags = new ArrayList<>();
+          List<Double> calls = new ArrayList<>();
+          for (int i = 0; i < iterations; i++) {
+            long delay = 100 + random.nextInt(900);
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            js.executeScript(change.getValue()[0]);
+            js.executeScript(change.getValue()[1], delay);
+            int before = commands.get();
+            long start = System.nanoTime();
+            await(driver, strategy, condition);
+            lags.add((System.nanoTime() - start) / 1e6 - delay);
+            calls.add((double) (commands.get() - before));
+          }
+          Map<String, Object> result = new LinkedHashMap<>();
+          result.put("medianLagMillis", percentile(lags, 0.5));
+          result.put("p95LagMillis", percentile(lags, 0.95));
+          result.put("medianCommands", percentile(calls, 0.5));
+          results.put(strategy, result);
+          logger.info(
+              "{} / {}: lag median {} ms, p95 {} ms, {} commands per wait",
+              condition,
+              strategy,
+              Math.round(percentile(lags, 0.5)),
+              Math.round(percentile(lags, 0.95)),
+              Math.round(percentile(calls, 0.5)));
+        }
+        report.put(condition, results);
+      }
+    } finally {
+      BrowserFactory.quitDriver(raw);
+    }
+
+    Path output = Paths.get("target", "benchmark", "wait-strategies.json");
+    Files.createDirectories(output.getParent());
+    Files.write(
+        output,
+        new GsonBuilder()
+            .setPrettyPrinting()
+            .create()
+            .toJson(report)
+            .getBytes(StandardCharsets.UTF_8));
+    logger.info("Benchmark written to {}", output);
+  }
+
+  private static void await(WebDriver driver, String strategy, String condition) {
+    ExpectedCondition<?> expectation;
+    switch (condition) {
+      case "text":
+        expectation = ExpectedConditions.textToBePresentInElementLocated(TARGET, "ready");
+        break;
+      case "invisible":
+        expectation = ExpectedConditions.invisibilityOfElementLocated(TARGET);
+        break;
+      case "visible":
+      default:
+        expectation = ExpectedConditions.visibilityOfElementLocated(TARGET);
+        break;
+    }
+    if ("observe".equals(strategy)) {
+      MutationWaits.until(driver, TARGET, condition, "ready", TIMEOUT, expectation);
+    } else {
+      new WebDriverWait(driver, TIMEOUT).until(expectation);
+    }
+  }
+
+  private static double percentile(List<Double> values, double percentile) {
+    if (values.isEmpty()) {
+      return Double.NaN;
+    }
+    List<Double> sorted = new ArrayList<>(values);
+    Collections.sort(sorted);
+    return sorted.get(Math.min(sorted.size() - 1, (int) (percentile * sorted.size())));
+  }
+}
@@ -5,6 +5,7 @@ import java.time.Duration;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
@@ -12,11 +13,16 @@ import org.slf4j.LoggerFactory;
 
 /**
  * WaitUtils - Utility class for handling all wait strategies. Encapsulates explicit wait logic and
- * reduces code duplication. Follows DRY principle.
+ * reduces code duplication. Follows DRY principle. Locator-based waits record their latency in
+ * {@link WaitHistory} and, in adaptive mode, use the timeout learned from it. With {@code
+ * -Dwaits.mode=observe} they are event-driven (see {@link MutationWaits}) instead of polling.
  */
 public class WaitUtils {
   private static final Logger logger = LoggerFactory.getLogger(WaitUtils.class);
 
+  private static final String PAGE_OBJECT_PACKAGE = "demoblaze.pageobjects.";
+  private static final String BASE_PAGE = PAGE_OBJECT_PACKAGE + "BasePage";
+
   private WaitUtils() {
     // Private constructor to prevent instantiation
   }
@@ -25,8 +31,8 @@ public class WaitUtils {
   public static WebElement waitForElementToBeVisible(WebDriver driver, By locator) {
     logger.debug("Waiting for element to be visible: {}", locator);
     try {
-      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(Config.EXPLICIT_WAIT));
-      return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+      return await(
+          driver, locator, "visible", ExpectedConditions.visibilityOfElementLocated(locator));
     } catch (Exception e) {
       logger.error("Element not visible within timeout: {}", locator);
       throw e;
@@ -49,8 +55,7 @@ public class WaitUtils {
   public static WebElement waitForElementToBeClickable(WebDriver driver, By locator) {
     logger.debug("Waiting for element to be clickable: {}", locator);
     try {
-      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(Config.EXPLICIT_WAIT));
-      return wait.until(ExpectedConditions.elementToBeClickable(locator));
+      return await(driver, locator, "clickable", ExpectedConditions.elementToBeClickable(locator));
     } catch (Exception e) {
       logger.error("Element not clickable within timeout: {}", locator);
       throw e;
@@ -69,12 +74,24 @@ public class WaitUtils {
     }
   }
 
+  /** Wait for element to be removed from the DOM, e.g. when a list is re-rendered. */
+  public static boolean waitForElementToBeStale(WebDriver driver, WebElement element) {
+    logger.debug("Waiting for web element to be stale");
+    try {
+      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(Config.EXPLICIT_WAIT));
+      return wait.until(ExpectedConditions.stalenessOf(element));
+    } catch (Exception e) {
+      logger.error("Web element not removed within timeout");
+      throw e;
+    }
+  }
+
   /** Wait for element to be present in DOM. */
   public static WebElement waitForElementToBePresent(WebDriver driver, By locator) {
     logger.debug("Waiting for element to be present: {}", locator);
     try {
-      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(Config.EXPLICIT_WAIT));
-      return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+      return await(
+          driver, locator, "present", ExpectedConditions.presenceOfElementLocated(locator));
     } catch (Exception e) {
       logger.error("Element not present within timeout: {}", locator);
       throw e;
@@ -85,8 +102,8 @@ public class WaitUtils {
   public static boolean waitForElementToBeInvisible(WebDriver driver, By locator) {
     logger.debug("Waiting for element to be invisible: {}", locator);
     try {
-      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(Config.EXPLICIT_WAIT));
-      return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+      return await(
+          driver, locator, "invisible", ExpectedConditions.invisibilityOfElementLocated(locator));
     } catch (Exception e) {
       logger.error("Element did not become invisible within timeout: {}", locator);
       throw e;
@@ -97,8 +114,12 @@ public class WaitUtils {
   public static boolean waitForElementToHaveText(WebDriver driver, By locator, String text) {
     logger.debug("Waiting for element to have text: {}", text);
     try {
-      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(Config.EXPLICIT_WAIT));
-      return wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+      return await(
+          driver,
+          locator,
+          "text",
+          text,
+          ExpectedConditions.textToBePresentInElementLocated(locator, text));
     } catch (Exception e) {
       logger.error("Element did not have expected text within timeout: {}", text);
       throw e;
@@ -109,8 +130,7 @@ public class WaitUtils {
   public static void waitForAlert(WebDriver driver) {
     logger.debug("Waiting for alert to be present");
     try {
-      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(Config.EXPLICIT_WAIT));
-      wait.until(ExpectedConditions.alertIsPresent());
+      await(driver, "alert", "present", ExpectedConditions.alertIsPresent());
     } catch (Exception e) {
       logger.error("Alert not present within timeout");
       throw e;
@@ -126,4 +146,90 @@ public class WaitUtils {
       Thread.currentThread().interrupt();
     }
   }
+
+  private static <T> T await(
+      WebDriver driver, Object target, String condition, ExpectedCondition<T> expectation) {
+    return await(driver, target, condition, null, expectation);
+  }
+
+  /**
+   * Waits for a condition using the timeout from {@link WaitHistory} and records how long it took
+   * to succeed.
+   */
+  private static <T> T await(
+      WebDriver driver,
+      Object target,
+      String condition,
+      String text,
+      ExpectedCondition<T> expectation) {
+    if (!WaitHistory.isRecording()) {
+      return until(
+          driver, target, condition, text, Duration.ofSeconds(Config.EXPLICIT_WAIT), expectation);
+    }
+    String key = WaitHistory.key(callingPage(), target, condition);
+    Duration timeout = WaitHistory.timeoutFor(key);
+    long start = System.nanoTime();
+    try {
+      T result = until(driver, target, condition, text, timeout, expectation);
+      WaitHistory.record(key, (System.nanoTime() - start) / 1_000_000);
+      return result;
+    } catch (RuntimeException e) {
+      logger.debug(
+          "Wait {} failed after {} ms (timeout {} ms)",
+          key,
+          (System.nanoTime() - start) / 1_000_000,
+          timeout.toMillis());
+      throw e;
+    }
+  }
+
+  /** Runs the wait, reporting its latency to {@link LiveMetrics} when that is enabled. */
+  private static <T> T until(
+      WebDriver driver,
+      Object target,
+      String condition,
+      String text,
+      Duration timeout,
+      ExpectedCondition<T> expectation) {
+    if (!LiveMetrics.isEnabled()) {
+      return pollOrObserve(driver, target, condition, text, timeout, expectation);
+    }
+    long start = System.nanoTime();
+    try {
+      T result = pollOrObserve(driver, target, condition, text, timeout, expectation);
+      LiveMetrics.observeWait(condition, System.nanoTime() - start, true);
+      return result;
+    } catch (RuntimeException e) {
+      LiveMetrics.observeWait(condition, System.nanoTime() - start, false);
+      throw e;
+    }
+  }
+
+  /** Observes the condition in the page when {@link MutationWaits} is enabled, else polls. */
+  private static <T> T pollOrObserve(
+      WebDriver driver,
+      Object target,
+      String condition,
+      String text,
+      Duration timeout,
+      ExpectedCondition<T> expectation) {
+    if (MutationWaits.isEnabled(driver) && MutationWaits.supports(target, condition)) {
+      return MutationWaits.until(driver, (By) target, condition, text, timeout, expectation);
+    }
+    return new WebDriverWait(driver, timeout).until(expectation);
+  }
+
+  /** Finds the page object that requested the wait, skipping BasePage helpers. */
+  private static String callingPage() {
+    return StackWalker.getInstance()
+        .walk(
+            frames ->
+                frames
+                    .map(StackWalker.StackFrame::getClassName)
+                    .filter(
+                        name -> name.startsWith(PAGE_OBJECT_PACKAGE) && !name.startsWith(BASE_PAGE))
+                    .findFirst())
+        .map(name -> name.substring(PAGE_OBJECT_PACKAGE.length()))
+        .orElse("BasePage");
+  }
 }
@@ -0,0 +1,74 @@
+package demoblaze.listeners;
+
+import demoblaze.config.Config;
+import demoblaze.utils.TestLogger;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.IAlterSuiteListener;
+import org.testng.ITestContext;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * BrowserMatrix - Fans a suite out across the browsers listed in {@code -Dbrowsers}. Before the
+ * suite runs, every {@code <test>} is copied once per browser with a {@code browser} parameter and
+ * a {@code [browser]} name suffix, and the copies run in parallel, so one invocation covers the
+ * whole matrix in roughly the time of the slowest browser. A {@code <test>} that already sets
+ * {@code browser} is left alone, and with a single browser the suite is not changed.
+ */
+public class BrowserMatrix implements IAlterSuiteListener {
+
+  static final String BROWSER_PARAMETER = "browser";
+
+  @Override
+  public void alter(List<XmlSuite> suites) {
+    if (Config.BROWSERS.size() < 2) {
+      return;
+    }
+    for (XmlSuite suite : suites) {
+      List<XmlTest> expanded = new ArrayList<>();
+      for (XmlTest test : new ArrayList<>(suite.getTests())) {
+        if (test.getParameter(BROWSER_PARAMETER) != null) {
+          expanded.add(test);
+          continue;
+        }
+        for (String browser : Config.BROWSERS) {
+          expanded.add(copy(test, browser));
+        }
+      }
+      suite.setTests(expanded);
+      suite.setParallel(XmlSuite.ParallelMode.TESTS);
+      suite.setThreadCount(Math.max(suite.getThreadCount(), expanded.size()));
+      TestLogger.info(
+          "Suite '{}' expanded to {} tests across browsers {}",
+          suite.getName(),
+          expanded.size(),
+          Config.BROWSERS);
+    }
+  }
+
+  /**
+   * Browser a test runs against: its {@code browser} parameter, or the configured browser outside a
+   * matrix.
+   */
+  public static String browserOf(ITestContext context) {
+    String browser = context.getCurrentXmlTest().getParameter(BROWSER_PARAMETER);
+    return browser == null ? Config.BROWSER : browser;
+  }
+
+  /** Copies a test for one browser; classes are copied too, as they resolve their parameters. */
+  private static XmlTest copy(XmlTest test, String browser) {
+    XmlTest copy = (XmlTest) test.clone();
+    copy.setName(test.getName() + " [" + browser + "]");
+    copy.addParameter(BROWSER_PARAMETER, browser);
+    List<XmlClass> classes = new ArrayList<>();
+    for (XmlClass xmlClass : test.getXmlClasses()) {
+      XmlClass classCopy = (XmlClass) xmlClass.clone();
+      classCopy.setXmlTest(copy);
+      classes.add(classCopy);
+    }
+    copy.setXmlClasses(classes);
+    return copy;
+  }
+}
@@ -0,0 +1,173 @@
+package demoblaze.listeners;
+
+import demoblaze.config.Config;
+import demoblaze.tests.DriverHolder;
+import demoblaze.utils.TestLogger;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.testng.IExecutionListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * FailureArtifactListener - Captures screenshot, DOM and browser console logs when a test fails.
+ * Only the raw driver calls run on the test thread; compression and writing to the Allure results
+ * directory run on a bounded background executor. When the queue is full the test thread writes the
+ * artifacts itself, which throttles capture instead of growing memory without limit. The driver is
+ * taken from test classes implementing {@link DriverHolder}. The executor serves every suite of the
+ * run and is drained once when the run ends.
+ */
+public class FailureArtifactListener implements IInvokedMethodListener, IExecutionListener {
+
+  private static final ThreadPoolExecutor writer =
+      new ThreadPoolExecutor(
+          Config.ARTIFACT_WRITER_THREADS,
+          Config.ARTIFACT_WRITER_THREADS,
+          0L,
+          TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(Config.ARTIFACT_QUEUE_CAPACITY),
+          runnable -> {
+            Thread thread = new Thread(runnable, "artifact-writer");
+            thread.setDaemon(true);
+            return thread;
+          },
+          new ThreadPoolExecutor.CallerRunsPolicy());
+
+  private static final AtomicInteger captures = new AtomicInteger();
+  private static final AtomicLong totalCaptureMillis = new AtomicLong();
+  private static final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+  /**
+   * Runs after the test method but before the Allure listener closes the test case, so the
+   * attachments can still be registered against it.
+   */
+  @Override
+  public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+    if (!method.isTestMethod() || testResult.getStatus() != ITestResult.FAILURE) {
+      return;
+    }
+    if (!(testResult.getInstance() instanceof DriverHolder)) {
+      return;
+    }
+    WebDriver driver = ((DriverHolder) testResult.getInstance()).getDriver();
+    if (driver == null) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    byte[] screenshot = captureScreenshot(driver);
+    String pageSource = capturePageSource(driver);
+    String consoleLog = captureConsoleLog(driver);
+    long captureMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // Register attachments on the test thread; only their content is written in the background
+    AllureLifecycle lifecycle = Allure.getLifecycle();
+    String screenshotSource = lifecycle.prepareAttachment("Screenshot", "image/png", ".png");
+    String domSource = lifecycle.prepareAttachment("DOM", "application/gzip", ".html.gz");
+    String consoleSource =
+        lifecycle.prepareAttachment("Console log", "application/gzip", ".log.gz");
+
+    writer.execute(
+        () -> {
+          write(lifecycle, screenshotSource, screenshot);
+          write(lifecycle, domSource, gzip(pageSource));
+          write(lifecycle, consoleSource, gzip(consoleLog));
+        });
+
+    int queueDepth = writer.getQueue().size();
+    maxQueueDepth.accumulateAndGet(queueDepth, Math::max);
+    captures.incrementAndGet();
+    totalCaptureMillis.addAndGet(captureMillis);
+    TestLogger.info(
+        "Failure artifacts captured for {} in {} ms (writer queue depth: {})",
+        testResult.getName(),
+        captureMillis,
+        queueDepth);
+  }
+
+  /** Drains pending writes so no artifact is lost when the JVM exits. */
+  @Override
+  public void onExecutionFinish() {
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(Config.ARTIFACT_DRAIN_TIMEOUT, TimeUnit.SECONDS)) {
+        TestLogger.warn("Artifact writer did not drain within {}s", Config.ARTIFACT_DRAIN_TIMEOUT);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    int count = captures.get();
+    if (count > 0) {
+      TestLogger.info(
+          "Failure artifacts: {} captures, avg capture {} ms, max writer queue depth {}",
+          count,
+          totalCaptureMillis.get() / count,
+          maxQueueDepth.get());
+    }
+  }
+
+  private static byte[] captureScreenshot(WebDriver driver) {
+    try {
+      return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+    } catch (Exception e) {
+      TestLogger.warn("Could not capture screenshot: {}", e.getMessage());
+      return new byte[0];
+    }
+  }
+
+  private static String capturePageSource(WebDriver driver) {
+    try {
+      return driver.getPageSource();
+    } catch (Exception e) {
+      TestLogger.warn("Could not capture page source: {}", e.getMessage());
+      return "";
+    }
+  }
+
+  /** Browser console logs are only exposed by Chromium-based drivers. */
+  private static String captureConsoleLog(WebDriver driver) {
+    try {
+      StringBuilder log = new StringBuilder();
+      for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+        log.append(entry).append('\n');
+      }
+      return log.toString();
+    } catch (Exception e) {
+      return "Console log not available: " + e.getMessage();
+    }
+  }
+
+  private static byte[] gzip(String content) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+      gzip.write(content.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      TestLogger.error("Could not compress artifact", e);
+    }
+    return buffer.toByteArray();
+  }
+
+  private static void write(AllureLifecycle lifecycle, String source, byte[] content) {
+    try {
+      lifecycle.writeAttachment(source, new ByteArrayInputStream(content));
+    } catch (Exception e) {
+      TestLogger.error("Could not write artifact " + source, e);
+    }
+  }
+}
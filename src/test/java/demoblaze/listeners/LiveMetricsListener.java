@@ -0,0 +1,62 @@
+package demoblaze.listeners;
+
+import demoblaze.utils.LiveMetrics;
+import org.testng.IExecutionListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * LiveMetricsListener - Starts the {@link LiveMetrics} endpoint with the first suite and counts
+ * tests as they start and finish, labelled by browser so a matrix run shows each browser's
+ * progress. Does nothing unless {@code -Dmetrics.port} is set.
+ */
+public class LiveMetricsListener implements ITestListener, ISuiteListener, IExecutionListener {
+
+  @Override
+  public void onStart(ISuite suite) {
+    LiveMetrics.start();
+  }
+
+  @Override
+  public void onExecutionFinish() {
+    LiveMetrics.stop();
+  }
+
+  @Override
+  public void onTestStart(ITestResult result) {
+    LiveMetrics.testStarted(BrowserMatrix.browserOf(result.getTestContext()));
+  }
+
+  @Override
+  public void onTestSuccess(ITestResult result) {
+    finished(result, "pass");
+  }
+
+  @Override
+  public void onTestFailure(ITestResult result) {
+    finished(result, "fail");
+  }
+
+  @Override
+  public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+    finished(result, "fail");
+  }
+
+  @Override
+  public void onTestFailedWithTimeout(ITestResult result) {
+    finished(result, "fail");
+  }
+
+  @Override
+  public void onTestSkipped(ITestResult result) {
+    finished(result, result.wasRetried() ? "retried" : "skip");
+  }
+
+  private static void finished(ITestResult result, String status) {
+    if (LiveMetrics.isEnabled()) {
+      LiveMetrics.testFinished(BrowserMatrix.browserOf(result.getTestContext()), status);
+    }
+  }
+}
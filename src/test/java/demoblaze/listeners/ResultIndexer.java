@@ -0,0 +1,392 @@
+package demoblaze.listeners;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import demoblaze.config.Config;
+import demoblaze.utils.TestLogger;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ResultIndexer - Renders the result stream written by {@link StreamingResultWriter} into {@code
+ * junit.xml} (readable by CI servers) and an {@code index.html} summary next to it. Reads the
+ * stream twice, line by line, first for the totals and then for the individual results, so memory
+ * depends on the number of test classes and suites rather than on the number of results. When the
+ * stream holds more than one browser (see {@link BrowserMatrix}), the summary adds a table per
+ * browser and JUnit test names carry the browser, so the matrix reads as one combined report.
+ *
+ * <p>Also runs standalone, e.g. to index the partial stream of a run that was killed: {@code mvn
+ * test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=demoblaze.listeners.ResultIndexer}
+ */
+public class ResultIndexer {
+
+  private ResultIndexer() {
+    // Private constructor to prevent instantiation
+  }
+
+  public static void main(String[] args) throws IOException {
+    index(Paths.get(args.length > 0 ? args[0] : Config.RESULTS_DIR));
+  }
+
+  /** Handles one result line of the stream. */
+  @FunctionalInterface
+  private interface ResultHandler {
+    void handle(JsonObject result) throws IOException;
+  }
+
+  /** Result counts and total duration of a group of results. */
+  private static final class Counts {
+    private int passed;
+    private int failed;
+    private int errors;
+    private int skipped;
+    private long durationMillis;
+    private long firstStart = Long.MAX_VALUE;
+    private long lastEnd;
+
+    private void add(JsonObject result) {
+      switch (result.get("status").getAsString()) {
+        case "PASS":
+          passed++;
+          break;
+        case "FAIL":
+          if (isAssertion(result)) {
+            failed++;
+          } else {
+            errors++;
+          }
+          break;
+        default:
+          skipped++;
+          break;
+      }
+      long duration = result.get("durationMillis").getAsLong();
+      durationMillis += duration;
+      if (result.has("start")) {
+        long start = result.get("start").getAsLong();
+        firstStart = Math.min(firstStart, start);
+        lastEnd = Math.max(lastEnd, start + duration);
+      }
+    }
+
+    /** Time from the first result's start to the last result's end. */
+    private long wallClockMillis() {
+      return lastEnd > firstStart ? lastEnd - firstStart : durationMillis;
+    }
+
+    private int total() {
+      return passed + failed + errors + skipped;
+    }
+  }
+
+  /** Consecutive results of one suite; TestNG runs suites one after another. */
+  private static final class Segment {
+    private final String suite;
+    private final Counts counts = new Counts();
+
+    private Segment(String suite) {
+      this.suite = suite;
+    }
+  }
+
+  /**
+   * Writes {@code junit.xml} and {@code index.html} for the stream in a results directory.
+   *
+   * @return number of results indexed
+   */
+  public static int index(Path directory) throws IOException {
+    Path stream = directory.resolve(StreamingResultWriter.RESULTS_FILE);
+    if (!Files.isRegularFile(stream)) {
+      return 0;
+    }
+
+    Counts totals = new Counts();
+    Map<String, Counts> classes = new LinkedHashMap<>();
+    Map<String, Counts> browsers = new LinkedHashMap<>();
+    List<Segment> segments = new ArrayList<>();
+    forEachResult(
+        stream,
+        Integer.MAX_VALUE,
+        result -> {
+          String suite = result.get("suite").getAsString();
+          if (segments.isEmpty() || !segments.get(segments.size() - 1).suite.equals(suite)) {
+            segments.add(new Segment(suite));
+          }
+          segments.get(segments.size() - 1).counts.add(result);
+          classes
+              .computeIfAbsent(result.get("class").getAsString(), key -> new Counts())
+              .add(result);
+          if (result.has("browser")) {
+            browsers.computeIfAbsent(text(result, "browser"), key -> new Counts()).add(result);
+          }
+          totals.add(result);
+        });
+
+    try (Writer junit =
+            Files.newBufferedWriter(directory.resolve("junit.xml"), StandardCharsets.UTF_8);
+        Writer html =
+            Files.newBufferedWriter(directory.resolve("index.html"), StandardCharsets.UTF_8)) {
+      junit.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+      junit.write("<testsuites" + attributes("demoblaze", totals) + ">\n");
+      writeSummary(html, totals, classes, browsers);
+      boolean matrix = browsers.size() > 1;
+
+      int[] segment = {-1};
+      String[] currentSuite = {null};
+      // Results appended after the first pass belong to a suite still running; leave them out
+      forEachResult(
+          stream,
+          totals.total(),
+          result -> {
+            String suite = result.get("suite").getAsString();
+            if (!suite.equals(currentSuite[0])) {
+              if (currentSuite[0] != null) {
+                junit.write("  </testsuite>\n");
+              }
+              currentSuite[0] = suite;
+              Segment next = segments.get(++segment[0]);
+              junit.write("  <testsuite" + attributes(next.suite, next.counts) + ">\n");
+            }
+            writeTestCase(junit, result, matrix);
+            if (!"PASS".equals(result.get("status").getAsString())) {
+              writeFailureRow(html, result, matrix);
+            }
+          });
+
+      if (currentSuite[0] != null) {
+        junit.write("  </testsuite>\n");
+      }
+      junit.write("</testsuites>\n");
+      html.write("</table>\n</body>\n</html>\n");
+    }
+    TestLogger.info(
+        "Indexed {} results ({} passed, {} failed, {} errors, {} skipped) into {}",
+        totals.total(),
+        totals.passed,
+        totals.failed,
+        totals.errors,
+        totals.skipped,
+        directory);
+    return totals.total();
+  }
+
+  /** Reads up to {@code limit} results one line at a time, skipping unreadable lines. */
+  private static void forEachResult(Path stream, int limit, ResultHandler handler)
+      throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(stream, StandardCharsets.UTF_8)) {
+      int read = 0;
+      String line = reader.readLine();
+      while (line != null && read < limit) {
+        JsonObject result = parse(line);
+        if (result != null) {
+          handler.handle(result);
+          read++;
+        }
+        line = reader.readLine();
+      }
+    }
+  }
+
+  /** Parses a result line; null for blank lines and the truncated last line of a killed run. */
+  private static JsonObject parse(String line) {
+    if (line.isBlank()) {
+      return null;
+    }
+    try {
+      JsonObject result = JsonParser.parseString(line).getAsJsonObject();
+      return result.has("status") && result.has("suite") ? result : null;
+    } catch (JsonParseException | IllegalStateException e) {
+      TestLogger.warn("Skipping unreadable result line: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private static void writeTestCase(Writer junit, JsonObject result, boolean matrix)
+      throws IOException {
+    junit.write(
+        "    <testcase classname=\""
+            + escape(text(result, "class"))
+            + "\" name=\""
+            + escape(testName(result, matrix))
+            + "\" time=\""
+            + seconds(result.get("durationMillis").getAsLong())
+            + "\"");
+    switch (text(result, "status")) {
+      case "PASS":
+        junit.write("/>\n");
+        return;
+      case "FAIL":
+        String element = isAssertion(result) ? "failure" : "error";
+        junit.write(
+            ">\n      <"
+                + element
+                + " type=\""
+                + escape(text(result, "failureType"))
+                + "\" message=\""
+                + escape(text(result, "message"))
+                + "\">"
+                + escape(text(result, "stack"))
+                + "</"
+                + element
+                + ">\n    </testcase>\n");
+        return;
+      default:
+        junit.write(
+            ">\n      <skipped message=\""
+                + ("RETRIED".equals(text(result, "status")) ? "retried" : "skipped")
+                + "\"/>\n    </testcase>\n");
+        return;
+    }
+  }
+
+  private static void writeSummary(
+      Writer html, Counts totals, Map<String, Counts> classes, Map<String, Counts> browsers)
+      throws IOException {
+    html.write(
+        "<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>Test Results</title>\n"
+            + "<style>body{font-family:sans-serif}table{border-collapse:collapse}"
+            + "td,th{border:1px solid #ccc;padding:4px 8px;text-align:left}"
+            + ".PASS{color:#2a7a2a}.FAIL{color:#b02020}.SKIP,.RETRIED{color:#a07000}</style>\n"
+            + "</head>\n<body>\n<h1>Test Results</h1>\n");
+    html.write(
+        String.format(
+            Locale.ROOT,
+            "<p>%d tests: <span class=\"PASS\">%d passed</span>, <span class=\"FAIL\">%d failed,"
+                + " %d errors</span>, <span class=\"SKIP\">%d skipped</span> in %s s</p>%n",
+            totals.total(),
+            totals.passed,
+            totals.failed,
+            totals.errors,
+            totals.skipped,
+            seconds(totals.durationMillis)));
+    if (browsers.size() > 1) {
+      html.write(
+          "<h2>Browsers</h2>\n<table>\n<tr><th>Browser</th><th>Tests</th><th>Passed</th>"
+              + "<th>Failed</th><th>Errors</th><th>Skipped</th><th>Wall clock (s)</th></tr>\n");
+      for (Map.Entry<String, Counts> entry : browsers.entrySet()) {
+        writeCountsRow(html, entry.getKey(), entry.getValue(), entry.getValue().wallClockMillis());
+      }
+      html.write("</table>\n");
+    }
+    html.write(
+        "<h2>Classes</h2>\n<table>\n<tr><th>Class</th><th>Tests</th><th>Passed</th>"
+            + "<th>Failed</th><th>Errors</th><th>Skipped</th><th>Time (s)</th></tr>\n");
+    for (Map.Entry<String, Counts> entry : classes.entrySet()) {
+      writeCountsRow(html, entry.getKey(), entry.getValue(), entry.getValue().durationMillis);
+    }
+    html.write(
+        "</table>\n<h2>Failed and skipped tests</h2>\n<table>\n"
+            + "<tr><th>Status</th><th>Test</th><th>Failure</th></tr>\n");
+  }
+
+  private static void writeCountsRow(Writer html, String name, Counts counts, long millis)
+      throws IOException {
+    html.write(
+        String.format(
+            Locale.ROOT,
+            "<tr><td>%s</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td>"
+                + "<td>%s</td></tr>%n",
+            escape(name),
+            counts.total(),
+            counts.passed,
+            counts.failed,
+            counts.errors,
+            counts.skipped,
+            seconds(millis)));
+  }
+
+  private static void writeFailureRow(Writer html, JsonObject result, boolean matrix)
+      throws IOException {
+    String status = text(result, "status");
+    html.write(
+        "<tr><td class=\""
+            + status
+            + "\">"
+            + status
+            + "</td><td>"
+            + escape(text(result, "class") + "." + testName(result, matrix))
+            + "</td><td>");
+    if (result.has("stack")) {
+      html.write(
+          "<details><summary>"
+              + escape(text(result, "failureType") + ": " + text(result, "message"))
+              + "</summary><pre>"
+              + escape(text(result, "stack"))
+              + "</pre></details>");
+    }
+    html.write("</td></tr>\n");
+  }
+
+  private static String attributes(String name, Counts counts) {
+    return String.format(
+        Locale.ROOT,
+        " name=\"%s\" tests=\"%d\" failures=\"%d\" errors=\"%d\" skipped=\"%d\" time=\"%s\"",
+        escape(name),
+        counts.total(),
+        counts.failed,
+        counts.errors,
+        counts.skipped,
+        seconds(counts.durationMillis));
+  }
+
+  private static boolean isAssertion(JsonObject result) {
+    JsonElement assertion = result.get("assertion");
+    return assertion != null && assertion.getAsBoolean();
+  }
+
+  /** Method name with its parameters and, in a browser matrix, the browser it ran in. */
+  private static String testName(JsonObject result, boolean matrix) {
+    String method = text(result, "method");
+    String name = result.has("parameters") ? method + text(result, "parameters") : method;
+    return matrix && result.has("browser") ? name + " [" + text(result, "browser") + "]" : name;
+  }
+
+  private static String text(JsonObject result, String key) {
+    JsonElement value = result.get(key);
+    return value == null || value.isJsonNull() ? "" : value.getAsString();
+  }
+
+  private static String seconds(long millis) {
+    return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+  }
+
+  /** Escapes text for XML and HTML attributes and content, dropping invalid XML characters. */
+  private static String escape(String text) {
+    StringBuilder escaped = new StringBuilder(text.length());
+    for (char c : text.toCharArray()) {
+      switch (c) {
+        case '&':
+          escaped.append("&amp;");
+          break;
+        case '<':
+          escaped.append("&lt;");
+          break;
+        case '>':
+          escaped.append("&gt;");
+          break;
+        case '"':
+          escaped.append("&quot;");
+          break;
+        default:
+          if (c >= 0x20 || c == '\n' || c == '\r' || c == '\t') {
+            escaped.append(c);
+          }
+          break;
+      }
+    }
+    return escaped.toString();
+  }
+}
@@ -0,0 +1,39 @@
+package demoblaze.listeners;
+
+import demoblaze.config.Config;
+import demoblaze.utils.LiveMetrics;
+import demoblaze.utils.RetryExecutor;
+import demoblaze.utils.TestLogger;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * RetryAnalyzer - Reruns a failed test only when it failed with a whitelisted transient exception
+ * that escaped interaction-level retries, at most {@link Config#TEST_RETRIES} times. The duration
+ * of the failed run is charged to the shared retry budget, so reruns cannot take over suite time.
+ * Assertion failures are never retried.
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+  private int attempts;
+
+  @Override
+  public boolean retry(ITestResult result) {
+    if (attempts >= Config.TEST_RETRIES || !RetryExecutor.isRetryable(result.getThrowable())) {
+      return false;
+    }
+    long duration = result.getEndMillis() - result.getStartMillis();
+    if (!RetryExecutor.consumeBudget(duration)) {
+      TestLogger.warn("Retry budget exhausted, not rerunning {}", result.getName());
+      return false;
+    }
+    attempts++;
+    LiveMetrics.retried("test");
+    TestLogger.warn(
+        "Rerunning {} (attempt {}/{}) after {}",
+        result.getName(),
+        attempts,
+        Config.TEST_RETRIES,
+        result.getThrowable().getClass().getSimpleName());
+    return true;
+  }
+}
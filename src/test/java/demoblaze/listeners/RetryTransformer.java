@@ -0,0 +1,33 @@
+package demoblaze.listeners;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+
+/** RetryTransformer - Applies {@link RetryAnalyzer} to every test that does not declare its own. */
+public class RetryTransformer implements IAnnotationTransformer {
+
+  // What getRetryAnalyzerClass() reports for a test that declares no analyzer
+  private static final Object UNDECLARED = undeclaredRetryAnalyzer();
+
+  // IAnnotationTransformer declares the raw Class and Constructor parameters
+  @Override
+  @SuppressWarnings("rawtypes")
+  public void transform(
+      ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+    Class<?> declared = annotation.getRetryAnalyzerClass();
+    if (declared == null || declared == UNDECLARED) {
+      annotation.setRetryAnalyzer(RetryAnalyzer.class);
+    }
+  }
+
+  private static Object undeclaredRetryAnalyzer() {
+    try {
+      return Test.class.getMethod("retryAnalyzer").getDefaultValue();
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
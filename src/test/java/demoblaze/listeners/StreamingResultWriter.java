@@ -0,0 +1,126 @@
+package demoblaze.listeners;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import demoblaze.config.Config;
+import demoblaze.utils.TestLogger;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * StreamingResultWriter - Appends one JSON line per finished test to {@code
+ * target/results/results.jsonl} and flushes it immediately, instead of holding every result until
+ * the end of the suite like TestNG's HTML and XML reporters. Heap use does not grow with the number
+ * of tests, and a run that dies part-way still leaves every result up to that point. At the end of
+ * each suite {@link ResultIndexer} renders the JUnit XML and HTML summary from the stream.
+ */
+public class StreamingResultWriter implements ITestListener, ISuiteListener {
+
+  static final String RESULTS_FILE = "results.jsonl";
+
+  private static final Gson gson = new Gson();
+  private static final int MAX_STACK_CHARS = 8192;
+  private static final int MAX_PARAMETER_CHARS = 200;
+
+  private static Writer stream;
+
+  @Override
+  public void onTestSuccess(ITestResult result) {
+    write(result, "PASS");
+  }
+
+  @Override
+  public void onTestFailure(ITestResult result) {
+    write(result, "FAIL");
+  }
+
+  @Override
+  public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+    write(result, "FAIL");
+  }
+
+  @Override
+  public void onTestFailedWithTimeout(ITestResult result) {
+    write(result, "FAIL");
+  }
+
+  @Override
+  public void onTestSkipped(ITestResult result) {
+    write(result, result.wasRetried() ? "RETRIED" : "SKIP");
+  }
+
+  /** Indexes the stream written so far; later suites in the same run extend it. */
+  @Override
+  public void onFinish(ISuite suite) {
+    try {
+      ResultIndexer.index(Paths.get(Config.RESULTS_DIR));
+    } catch (IOException e) {
+      TestLogger.warn("Could not index test results: {}", e.getMessage());
+    }
+  }
+
+  private static void write(ITestResult result, String status) {
+    JsonObject line = new JsonObject();
+    line.addProperty("suite", result.getTestContext().getSuite().getName());
+    line.addProperty("test", result.getTestContext().getName());
+    line.addProperty("class", result.getTestClass().getName());
+    line.addProperty("method", result.getMethod().getMethodName());
+    line.addProperty("browser", BrowserMatrix.browserOf(result.getTestContext()));
+    if (result.getParameters().length > 0) {
+      line.addProperty(
+          "parameters", truncate(Arrays.deepToString(result.getParameters()), MAX_PARAMETER_CHARS));
+    }
+    line.addProperty("status", status);
+    line.addProperty("start", result.getStartMillis());
+    line.addProperty("durationMillis", result.getEndMillis() - result.getStartMillis());
+    line.addProperty("thread", Thread.currentThread().getName());
+    Throwable failure = result.getThrowable();
+    if (failure != null) {
+      line.addProperty("failureType", failure.getClass().getName());
+      line.addProperty("assertion", failure instanceof AssertionError);
+      line.addProperty("message", String.valueOf(failure.getMessage()));
+      StringWriter stack = new StringWriter();
+      failure.printStackTrace(new PrintWriter(stack));
+      line.addProperty("stack", truncate(stack.toString(), MAX_STACK_CHARS));
+    }
+    append(gson.toJson(line));
+  }
+
+  private static synchronized void append(String line) {
+    try {
+      if (stream == null) {
+        // Each JVM run starts a fresh stream; the suites it runs append to it
+        Path file = Paths.get(Config.RESULTS_DIR, RESULTS_FILE);
+        Files.createDirectories(file.getParent());
+        stream =
+            Files.newBufferedWriter(
+                file,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+      }
+      stream.write(line);
+      stream.write('\n');
+      stream.flush();
+    } catch (IOException e) {
+      TestLogger.warn("Could not write test result: {}", e.getMessage());
+    }
+  }
+
+  private static String truncate(String text, int maxChars) {
+    return text.length() <= maxChars ? text : text.substring(0, maxChars) + "...";
+  }
+}
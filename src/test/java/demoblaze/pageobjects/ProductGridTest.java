@@ -0,0 +1,114 @@
+package demoblaze.pageobjects;
+
+import demoblaze.utils.WaitUtils;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.htmlunit.BrowserVersion;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * ProductGridTest - Unit tests for paging through the product grid, on a local fixture page in
+ * HtmlUnit.
+ */
+public class ProductGridTest {
+
+  private WebDriver driver;
+
+  @BeforeMethod
+  public void openFixture() {
+    driver = new HtmlUnitDriver(BrowserVersion.CHROME, true);
+    driver.get(getClass().getResource("/pages/product-grid.html").toString());
+  }
+
+  @AfterMethod(alwaysRun = true)
+  public void quitDriver() {
+    driver.quit();
+  }
+
+  @Test(description = "Every card is read, page by page, in grid order")
+  public void testReadsAllPages() {
+    ProductGrid grid = new HomePage(driver).productGrid();
+    List<String> names = grid.stream().map(ProductCard::getName).collect(Collectors.toList());
+
+    Assert.assertEquals(
+        names,
+        List.of(
+            "Samsung galaxy s6",
+            "Nokia lumia 1520",
+            "Nexus 6",
+            "Samsung galaxy s7",
+            "Iphone 6 32gb"));
+    Assert.assertEquals(grid.getPagesRead(), 2);
+  }
+
+  @Test(description = "Pages are only read when the iteration reaches them")
+  public void testReadsLazily() {
+    ProductGrid grid = new HomePage(driver).productGrid();
+
+    Assert.assertTrue(grid.stream().anyMatch(card -> card.getPrice() == 820));
+    Assert.assertEquals(grid.getPagesRead(), 1);
+  }
+
+  @Test(description = "Each iteration starts from the first page, wherever the last one ended")
+  public void testIteratesFromFirstPageEachTime() {
+    HomePage homePage = new HomePage(driver);
+
+    List<ProductCard> first = homePage.products().collect(Collectors.toList());
+    List<ProductCard> second = homePage.products().collect(Collectors.toList());
+
+    Assert.assertEquals(first.size(), 5);
+    Assert.assertEquals(
+        second.stream().map(ProductCard::getName).collect(Collectors.toList()),
+        first.stream().map(ProductCard::getName).collect(Collectors.toList()));
+  }
+
+  @Test(description = "A category without products reads as an empty grid")
+  public void testReadsEmptyGrid() {
+    WebElement shown = driver.findElement(By.cssSelector("#tbodyid .card"));
+    driver.findElement(By.linkText("Tablets")).click();
+    WaitUtils.waitForElementToBeStale(driver, shown);
+
+    ProductGrid grid = new CategoryPage(driver).productGrid();
+
+    Assert.assertFalse(grid.hasNext());
+    Assert.assertEquals(grid.getPagesRead(), 1);
+  }
+
+  @Test(description = "Cards carry their price, or none when the card shows no price")
+  public void testReadsPrices() {
+    List<ProductCard> cards = new HomePage(driver).products().collect(Collectors.toList());
+
+    Assert.assertEquals(cards.get(0).getPriceText(), "$360");
+    Assert.assertEquals(cards.get(0).getPrice(), 360.0);
+    Assert.assertTrue(cards.get(0).getLink().endsWith("prod.html?name=Samsung%20galaxy%20s6"));
+    Assert.assertFalse(cards.get(4).hasPrice());
+  }
+
+  @Test(description = "After switching category the grid of the new category is read")
+  public void testReadsNewCategoryAfterSwitch() {
+    new HomePage(driver).navigateToCategory("Laptops");
+
+    List<String> names =
+        new CategoryPage(driver).products().map(ProductCard::getName).collect(Collectors.toList());
+
+    Assert.assertEquals(names, List.of("Sony vaio i5", "MacBook air"));
+  }
+
+  @Test(description = "Iteration ends when Next shows a page already read")
+  public void testStopsOnRepeatedPage() {
+    new HomePage(driver).navigateToCategory("Monitors");
+    ProductGrid grid = new CategoryPage(driver).productGrid();
+
+    List<String> names = grid.stream().map(ProductCard::getName).collect(Collectors.toList());
+
+    Assert.assertEquals(names, List.of("Apple monitor 24"));
+    Assert.assertFalse(grid.hasNext());
+  }
+}
@@ -0,0 +1,83 @@
+package demoblaze.testdata;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/** StreamingDataSourceTest - Unit tests for CSV parsing and bounded record sources. */
+public class StreamingDataSourceTest {
+
+  @Test(description = "Plain fields are split on commas and trimmed")
+  public void testPlainFields() {
+    Assert.assertEquals(
+        StreamingDataSource.parseCsvLine("John, Doe ,42"), List.of("John", "Doe", "42"));
+  }
+
+  @Test(description = "Quoted fields keep embedded commas")
+  public void testQuotedFieldWithComma() {
+    Assert.assertEquals(
+        StreamingDataSource.parseCsvLine("\"Doe, John\",Paris"), List.of("Doe, John", "Paris"));
+  }
+
+  @Test(description = "Doubled quotes inside a quoted field become one quote")
+  public void testEscapedQuotes() {
+    Assert.assertEquals(
+        StreamingDataSource.parseCsvLine("\"say \"\"hi\"\"\",x"), List.of("say \"hi\"", "x"));
+  }
+
+  @Test(description = "Empty fields are kept, including leading and trailing ones")
+  public void testEmptyFields() {
+    Assert.assertEquals(StreamingDataSource.parseCsvLine(",a,,b,"), List.of("", "a", "", "b", ""));
+    Assert.assertEquals(StreamingDataSource.parseCsvLine(""), List.of(""));
+    Assert.assertEquals(StreamingDataSource.parseCsvLine("\"\",x"), List.of("", "x"));
+  }
+
+  @Test(description = "A bounded source hands out no more records than its limit until released")
+  public void testBoundedSourceBlocksUntilRelease() throws Exception {
+    Iterator<Object[]> source =
+        StreamingDataSource.bounded(
+            StreamingDataSource.generate(3, index -> DataRecord.of(index, Map.of())), 2);
+    DataRecord first = (DataRecord) source.next()[0];
+    source.next();
+
+    CompletableFuture<Object[]> third = CompletableFuture.supplyAsync(source::next);
+    Assert.assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+
+    first.release();
+    first.release();
+    Assert.assertEquals(((DataRecord) third.get(5, TimeUnit.SECONDS)[0]).getIndex(), 2);
+    Assert.assertFalse(source.hasNext());
+  }
+
+  @Test(description = "Rows without a data record do not hold a slot")
+  public void testRowsWithoutRecordDoNotHoldSlots() {
+    Iterator<Object[]> source =
+        StreamingDataSource.bounded(
+            List.of(new Object[] {"a"}, new Object[] {"b"}, new Object[] {"c"}).iterator(),
+            1,
+            Duration.ofMillis(200));
+
+    Assert.assertEquals(source.next()[0], "a");
+    Assert.assertEquals(source.next()[0], "b");
+    Assert.assertEquals(source.next()[0], "c");
+  }
+
+  @Test(description = "A bounded source fails instead of hanging when no record is released")
+  public void testBoundedSourceFailsWhenNothingIsReleased() {
+    Iterator<Object[]> source =
+        StreamingDataSource.bounded(
+            StreamingDataSource.generate(2, index -> DataRecord.of(index, Map.of())),
+            1,
+            Duration.ofMillis(200));
+    source.next();
+
+    IllegalStateException error = Assert.expectThrows(IllegalStateException.class, source::next);
+    Assert.assertTrue(error.getMessage().contains("released"), error.getMessage());
+  }
+}
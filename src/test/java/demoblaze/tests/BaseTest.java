@@ -1,18 +1,36 @@
 package demoblaze.tests;
 
+import demoblaze.config.Config;
 import demoblaze.pageobjects.*;
+import demoblaze.testdata.AccountPool;
+import demoblaze.testdata.CatalogIndex;
 import demoblaze.utils.BrowserFactory;
+import demoblaze.utils.HarRecorder;
+import demoblaze.utils.ResourceMonitor;
+import demoblaze.utils.SessionSnapshot;
 import demoblaze.utils.TestLogger;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import org.openqa.selenium.WebDriver;
 import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
 
 /**
  * BaseTest - Base class for all test classes. Handles common setup and teardown logic. Follows DRY
  * principle and Single Responsibility. Implements Dependency Injection pattern for page objects.
  */
-public class BaseTest {
+public class BaseTest implements DriverHolder {
   protected WebDriver driver;
+  // Browser this class runs against; set per <test> by BrowserMatrix, else -Dbrowser
+  protected String browser;
 
   // Page Objects
   protected HomePage homePage;
@@ -24,14 +42,22 @@ public class BaseTest {
   protected CheckoutPage checkoutPage;
   protected HeaderComponent headerComponent;
 
-  /** Setup method - runs before each test class. Initializes WebDriver and Page Objects. */
+  private HarRecorder harRecorder;
+  private AccountPool.Account leasedAccount;
+
+  /**
+   * Setup method - runs before each test class. Initializes WebDriver and Page Objects for the
+   * browser given by the {@code browser} test parameter, or the configured browser without one.
+   */
   @BeforeClass
-  public void setUp() {
+  @Parameters("browser")
+  public void setUp(@Optional String browserParameter) {
     TestLogger.info("===== TEST SETUP STARTED =====");
+    browser = browserParameter == null ? Config.BROWSER : browserParameter;
 
-    // Create WebDriver instance
-    driver = BrowserFactory.createDriver();
-    TestLogger.info("WebDriver initialized");
+    // Create (or reuse a recycled) WebDriver instance
+    driver = BrowserFactory.acquireDriver(browser);
+    TestLogger.info("WebDriver initialized ({})", browser);
 
     // Initialize Page Objects with Dependency Injection
     initializePageObjects();
@@ -56,16 +82,68 @@ public class BaseTest {
     TestLogger.debug("All page objects initialized");
   }
 
-  /** Teardown method - runs after each test class. Closes WebDriver and cleans up resources. */
-  @AfterClass
+  /** Starts per-test HAR capture when enabled with -Dhar=true. */
+  @BeforeMethod(alwaysRun = true)
+  public void startHarCapture(Method method) {
+    if (!Config.HAR_ENABLED || driver == null) {
+      return;
+    }
+    Pattern urlFilter =
+        Config.HAR_URL_FILTER.isEmpty() ? null : Pattern.compile(Config.HAR_URL_FILTER);
+    String fileName = getClass().getSimpleName() + "." + method.getName() + matrixSuffix() + ".har";
+    harRecorder =
+        HarRecorder.start(
+                driver, Paths.get(Config.HAR_DIR, fileName), urlFilter, Config.HAR_MAX_BODY_BYTES)
+            .orElse(null);
+  }
+
+  /** Completes the HAR file of the test that just finished. */
+  @AfterMethod(alwaysRun = true)
+  public void stopHarCapture() {
+    if (harRecorder != null) {
+      harRecorder.close();
+      harRecorder = null;
+    }
+  }
+
+  /** Records the browser's memory and CPU use after each test (Chrome and Edge only). */
+  @AfterMethod(alwaysRun = true)
+  public void sampleBrowserResources(Method method) {
+    ResourceMonitor.sample(driver, getClass().getSimpleName() + "." + method.getName())
+        .ifPresent(sample -> TestLogger.debug("Browser resources after {}", sample));
+  }
+
+  /**
+   * Teardown method - runs after each test class. Closes WebDriver (or scrubs it for reuse in
+   * recycle mode) and cleans up resources. Runs even if setup failed, so a driver acquired before
+   * the failure is not leaked.
+   */
+  @AfterClass(alwaysRun = true)
   public void tearDown() {
     TestLogger.info("===== TEST TEARDOWN STARTED =====");
 
-    BrowserFactory.quitDriver(driver);
+    if (leasedAccount != null) {
+      AccountPool.getInstance().release(leasedAccount);
+      leasedAccount = null;
+    }
+    BrowserFactory.releaseDriver(driver);
 
     TestLogger.info("===== TEST TEARDOWN COMPLETED =====");
   }
 
+  /** Suite teardown - quits any drivers still parked for reuse and stops the account pool. */
+  @AfterSuite(alwaysRun = true)
+  public void tearDownSuite() {
+    BrowserFactory.quitIdleDrivers();
+    AccountPool.shutdown();
+  }
+
+  /** Gets the WebDriver used by this test class. Used by listeners to capture artifacts. */
+  @Override
+  public WebDriver getDriver() {
+    return driver;
+  }
+
   /** Navigates to home page. Common action used in multiple tests. */
   protected void navigateToHomePage() {
     homePage.navigateToHomePage();
@@ -85,6 +163,45 @@ public class BaseTest {
     loginPage.login(username, password);
   }
 
+  /**
+   * Logs in with an account leased from the pre-provisioned pool, skipping UI sign-up. For tests
+   * that need a logged-in user but do not test sign-up itself. The account is returned to the pool,
+   * with its cart emptied, after the class unless {@link #retireLeasedAccount()} is called.
+   */
+  protected AccountPool.Account loginWithPooledAccount() {
+    leasedAccount = AccountPool.getInstance().lease();
+    loginUser(leasedAccount.getUsername(), leasedAccount.getPassword());
+    return leasedAccount;
+  }
+
+  /** Discards the leased account instead of returning it, e.g. after it placed orders. */
+  protected void retireLeasedAccount() {
+    AccountPool.getInstance().retire(leasedAccount);
+    leasedAccount = null;
+  }
+
+  /**
+   * Puts this class's driver into a named session state (cookies, localStorage, sessionStorage),
+   * restoring it from a snapshot when one is available and still valid, or running {@code build}
+   * and snapshotting the result otherwise. Lets tests share a setup such as "logged in with items
+   * in the cart" without repeating it.
+   *
+   * @return true if the state was restored from a snapshot
+   */
+  protected boolean restoreOrBuildSession(
+      String name, Duration ttl, Runnable build, Predicate<WebDriver> isValid) {
+    TestLogger.testStep("Restore session state '%s'", name);
+    return SessionSnapshot.restoreOrBuild(driver, name + matrixSuffix(), ttl, build, isValid);
+  }
+
+  /**
+   * Suffix that keeps per-browser artifacts and shared state (HAR files, session snapshots) apart
+   * when a browser matrix runs; empty otherwise.
+   */
+  protected String matrixSuffix() {
+    return Config.BROWSERS.size() > 1 ? "-" + browser : "";
+  }
+
   /** Logs out current user. */
   protected void logoutUser() {
     TestLogger.testStep("Execute Logout");
@@ -94,20 +211,41 @@ public class BaseTest {
 
   /** Adds a product from a specific category to cart. */
   protected void addProductToCartFromCategory(String categoryName, String productName) {
-    TestLogger.testStep(
-        "Add product to cart - Category: {}, Product: {}", categoryName, productName);
-
-    // Navigate to category
-    homePage.navigateToCategory(categoryName);
+    addProductToCartFromCategory(driver, categoryName, productName);
+  }
 
-    // Wait and select product
-    categoryPage.waitForCategoryPageToLoad();
-    categoryPage.selectProductByName(productName);
+  /**
+   * Adds a product from a specific category to cart using the given driver, e.g. a scenario step's
+   * session rather than this class's driver.
+   */
+  protected void addProductToCartFromCategory(
+      WebDriver session, String categoryName, String productName) {
+    TestLogger.testStep(
+        "Add product to cart - Category: %s, Product: %s", categoryName, productName);
+    HomePage home = session == driver ? homePage : new HomePage(session);
+    CategoryPage category = session == driver ? categoryPage : new CategoryPage(session);
+    ProductPage product = session == driver ? productPage : new ProductPage(session);
+
+    // Open the product page directly when the catalog index knows it
+    if (Config.CATALOG_DEEP_LINKS
+        && CatalogIndex.getInstance()
+            .find(productName)
+            .filter(indexed -> indexed.getCategory().equalsIgnoreCase(categoryName))
+            .isPresent()) {
+      product.navigateToProduct(productName);
+    } else {
+      // Navigate to category
+      home.navigateToCategory(categoryName);
+
+      // Wait and select product
+      category.waitForCategoryPageToLoad();
+      category.selectProductByName(productName);
+    }
 
     // Add to cart
-    productPage.addProductToCart();
+    product.addProductToCart();
 
     // Navigate back home
-    homePage.navigateToHomePage();
+    home.navigateToHomePage();
   }
 }
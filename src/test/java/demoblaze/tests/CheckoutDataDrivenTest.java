@@ -0,0 +1,152 @@
+package demoblaze.tests;
+
+import demoblaze.config.Config;
+import demoblaze.pageobjects.CartPage;
+import demoblaze.pageobjects.CategoryPage;
+import demoblaze.pageobjects.CheckoutPage;
+import demoblaze.pageobjects.HeaderComponent;
+import demoblaze.pageobjects.HomePage;
+import demoblaze.pageobjects.ProductPage;
+import demoblaze.testdata.DataRecord;
+import demoblaze.testdata.StreamingDataSource;
+import demoblaze.testdata.TestData;
+import demoblaze.utils.BrowserFactory;
+import demoblaze.utils.TestLogger;
+import java.util.Iterator;
+import java.util.Map;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+/**
+ * CheckoutDataDrivenTest - Runs the anonymous checkout flow once per order record. Records are
+ * streamed lazily from a CSV/JSONL file ({@code -Ddata.orders=path}, default {@code
+ * data/orders.csv} on the classpath) or generated ({@code -Ddata.generate=N}), and each invocation
+ * uses its own browser so TestNG can run them in parallel. The browser is quit after the failure
+ * artifacts of the record have been captured.
+ *
+ * <p>Run with: {@code mvn test -Dsuite=testng-datadriven.xml}
+ */
+public class CheckoutDataDrivenTest implements DriverHolder {
+
+  private String browser = Config.BROWSER;
+  // Invocations run in parallel on one instance, each with its own driver
+  private final ThreadLocal<WebDriver> drivers = new ThreadLocal<>();
+
+  /** Picks up the browser of this {@code <test>} when the suite runs as a browser matrix. */
+  @BeforeClass
+  @Parameters("browser")
+  public void selectBrowser(@Optional String browserParameter) {
+    if (browserParameter != null) {
+      browser = browserParameter;
+    }
+  }
+
+  /**
+   * Streams order records without materializing the dataset. No more records are handed out than
+   * there are data provider threads; the next one is read when a running record is released.
+   */
+  @DataProvider(name = "orders", parallel = true)
+  public Iterator<Object[]> orders(ITestContext context) {
+    return StreamingDataSource.bounded(
+        source(), context.getSuite().getXmlSuite().getDataProviderThreadCount());
+  }
+
+  private static Iterator<Object[]> source() {
+    long generated = Long.getLong("data.generate", 0);
+    if (generated > 0) {
+      return StreamingDataSource.generate(generated, CheckoutDataDrivenTest::generateOrder);
+    }
+    String location = System.getProperty("data.orders", "data/orders.csv");
+    return location.endsWith(".jsonl")
+        ? StreamingDataSource.jsonl(location)
+        : StreamingDataSource.csv(location);
+  }
+
+  @Test(dataProvider = "orders", description = "Checkout flow for one order record")
+  public void testCheckoutWithOrderRecord(DataRecord order) {
+    TestLogger.testStart("testCheckoutWithOrderRecord " + order);
+    WebDriver driver = BrowserFactory.createDriver(browser);
+    drivers.set(driver);
+    HomePage homePage = new HomePage(driver);
+    CategoryPage categoryPage = new CategoryPage(driver);
+    ProductPage productPage = new ProductPage(driver);
+    HeaderComponent headerComponent = new HeaderComponent(driver);
+    CartPage cartPage = new CartPage(driver);
+    CheckoutPage checkoutPage = new CheckoutPage(driver);
+
+    homePage.navigateToHomePage();
+    homePage.navigateToCategory(order.require("category"));
+    categoryPage.waitForCategoryPageToLoad();
+    categoryPage.selectProductByName(order.require("product"));
+    productPage.addProductToCart();
+
+    headerComponent.clickCart();
+    cartPage.waitForCartPageToLoad();
+    Assert.assertTrue(
+        cartPage.isProductInCart(order.require("product")),
+        order.require("product") + " should be in cart");
+    cartPage.clickPlaceOrderButton();
+
+    String confirmation =
+        checkoutPage.completePurchase(
+            order.require("name"),
+            order.require("country"),
+            order.require("city"),
+            order.require("card"),
+            order.require("month"),
+            order.require("year"));
+    Assert.assertTrue(
+        confirmation.contains("Thank you"), "Purchase confirmation should be displayed");
+    TestLogger.assertion("Order %d purchased: %s", order.getIndex(), order.get("name"));
+    TestLogger.testEnd("testCheckoutWithOrderRecord " + order);
+  }
+
+  /** Quits the browser of the record that just ran on this thread and releases the record. */
+  @AfterMethod(alwaysRun = true)
+  public void quitDriver(ITestResult result) {
+    try {
+      BrowserFactory.quitDriver(drivers.get());
+      drivers.remove();
+    } finally {
+      for (Object parameter : result.getParameters()) {
+        if (parameter instanceof DataRecord) {
+          ((DataRecord) parameter).release();
+        }
+      }
+    }
+  }
+
+  @Override
+  public WebDriver getDriver() {
+    return drivers.get();
+  }
+
+  /** Builds a synthetic order from its index, cycling through the catalogue products. */
+  private static DataRecord generateOrder(long index) {
+    String[][] products = {
+      {TestData.Categories.PHONES, TestData.Products.SAMSUNG},
+      {TestData.Categories.LAPTOPS, TestData.Products.MACBOOK},
+      {TestData.Categories.MONITORS, TestData.Products.APPLE_MONITOR}
+    };
+    String[] product = products[(int) (index % products.length)];
+    return DataRecord.of(
+        index,
+        Map.of(
+            "name", "Generated User " + index,
+            "country", TestData.Order.COUNTRY,
+            "city", TestData.Order.CITY,
+            "card", TestData.Order.CARD_NUMBER,
+            "month", TestData.Order.MONTH,
+            "year", TestData.Order.YEAR,
+            "category", product[0],
+            "product", product[1]));
+  }
+}
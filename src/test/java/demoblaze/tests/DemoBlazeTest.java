@@ -1,8 +1,27 @@
 package demoblaze.tests;
 
+import demoblaze.pageobjects.CartPage;
+import demoblaze.pageobjects.CheckoutPage;
+import demoblaze.pageobjects.HeaderComponent;
+import demoblaze.pageobjects.HomePage;
+import demoblaze.pageobjects.LoginPage;
+import demoblaze.pageobjects.ProductCard;
+import demoblaze.pageobjects.SignUpPage;
+import demoblaze.testdata.AccountPool;
+import demoblaze.testdata.CartApi;
 import demoblaze.testdata.TestData;
+import demoblaze.utils.PerformanceBudget;
+import demoblaze.utils.PerformanceMonitor;
+import demoblaze.utils.Scenario;
 import demoblaze.utils.TestLogger;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 /**
@@ -19,117 +38,185 @@ import org.testng.annotations.Test;
  */
 public class DemoBlazeTest extends BaseTest {
 
+  // Scenario values passed between steps
+  private static final String ACCOUNT = "account";
+  private static final String SESSION = "session";
+  private static final String EMPTY_CART = "cart.empty";
+  private static final String CART_TOTAL = "cartTotal";
+  private static final String RECEIPT = "receipt";
+  private static final Duration SESSION_TTL = Duration.ofMinutes(30);
+
+  /**
+   * Declares page load budgets for pages this class loads. Checked with {@code -Dperf.metrics=true}
+   * and reported by {@link #testPageLoadsWithinBudgets}. Budgets are held per driver, so they cover
+   * the class driver only: pages loaded on sessions a {@link Scenario} leases with {@code
+   * -Dscenario.sessions} are not checked.
+   */
+  @BeforeClass
+  public void declarePerformanceBudgets() {
+    PerformanceMonitor.declareBudget(
+        driver, PerformanceBudget.forPage("HomePage").maxLcpMillis(2000).maxLoadMillis(5000));
+    PerformanceMonitor.declareBudget(
+        driver, PerformanceBudget.forPage("ProductPage").maxLoadMillis(5000));
+    PerformanceMonitor.declareBudget(
+        driver, PerformanceBudget.forPage("CartPage").maxLoadMillis(5000));
+  }
+
+  /** Drops this class's budgets before its driver is released to other classes. */
+  @AfterClass(alwaysRun = true)
+  public void clearPerformanceBudgets() {
+    PerformanceMonitor.clearBudgets(driver);
+  }
+
   /**
    * Main test method - Complete DemoBlaze scenario. This is the primary test case for end-to-end
-   * automation.
+   * automation. Runs as a {@link Scenario} on the class driver, one step after another. A failed
+   * step is retried up to {@code -Dscenario.attempts} times (2 by default) within the run, resuming
+   * after the last successful step. With {@code -Dscenario.sessions=N} the three category additions
+   * overlap on up to N sessions sharing the logged-in state; with {@code -Dretry.tests=N} TestNG
+   * retries the whole test, which resumes from the checkpoints of the failed run as well.
    */
   @Test(priority = 1, description = "Complete DemoBlaze Purchase Scenario")
   public void testCompleteDemoBlazeScenario() {
     TestLogger.testStart("testCompleteDemoBlazeScenario");
 
     try {
-      // Step 1: Navigate to home page
-      TestLogger.testStep("Step 1: Navigate to DemoBlaze home page");
-      navigateToHomePage();
-      Assert.assertTrue(homePage.isHomePageLoaded(), "Home page should be loaded");
-      TestLogger.assertion("Home page loaded successfully");
+      Scenario.named("testCompleteDemoBlazeScenario")
+          // Step 1 & 2: Navigate to home page and sign up new user
+          .step(
+              "Sign up new user",
+              List.of(),
+              ACCOUNT,
+              step -> {
+                HomePage home = new HomePage(step.driver());
+                home.navigateToHomePage();
+                Assert.assertTrue(home.isHomePageLoaded(), "Home page should be loaded");
+                TestLogger.assertion("Home page loaded successfully");
+                new HeaderComponent(step.driver()).clickSignUp();
+                // Each browser of a matrix signs up its own user
+                String username = TestData.User.USERNAME + matrixSuffix();
+                new SignUpPage(step.driver()).signUp(username, TestData.User.PASSWORD);
+                TestLogger.assertion("Sign up completed - User: " + username);
+                return username;
+              })
+          // Step 3 & 4: Login and validate the correct user is logged in
+          .step(
+              "Login and validate user",
+              List.of(ACCOUNT),
+              SESSION,
+              step -> {
+                String username = step.get(ACCOUNT, String.class);
+                HeaderComponent header = new HeaderComponent(step.driver());
+                header.clickLogin();
+                new LoginPage(step.driver()).login(username, TestData.User.PASSWORD);
+                Assert.assertTrue(header.isUserLoggedIn(), "User should be logged in");
+                String loggedInUser = header.getLoggedInUsername();
+                Assert.assertTrue(
+                    loggedInUser.contains(username), "Logged in user should match: " + username);
+                TestLogger.assertion("Login validation successful - User: " + loggedInUser);
+                return step.captureSession(
+                    "testCompleteDemoBlazeScenario-session" + matrixSuffix(), SESSION_TTL);
+              })
+          // Step 5 & 6: Add products from different categories to cart, concurrently. The cart is
+          // emptied first and none of these steps is checkpointed, so a resumed attempt that needs
+          // the cart rebuilds it instead of adding products twice
+          .stepWithoutCheckpoint(
+              "Empty cart",
+              List.of(ACCOUNT, SESSION),
+              EMPTY_CART,
+              step -> {
+                String username = step.get(ACCOUNT, String.class);
+                if (!CartApi.emptyCart(username)) {
+                  throw new IllegalStateException("Could not empty cart of " + username);
+                }
+                return true;
+              })
+          .stepWithoutCheckpoint(
+              "Add Samsung Galaxy s7",
+              List.of(SESSION, EMPTY_CART),
+              "cart.phone",
+              step -> addToCart(step, TestData.Categories.PHONES, TestData.Products.SAMSUNG))
+          .stepWithoutCheckpoint(
+              "Add MacBook Air",
+              List.of(SESSION, EMPTY_CART),
+              "cart.laptop",
+              step -> addToCart(step, TestData.Categories.LAPTOPS, TestData.Products.MACBOOK))
+          .stepWithoutCheckpoint(
+              "Add Apple Monitor 24",
+              List.of(SESSION, EMPTY_CART),
+              "cart.monitor",
+              step ->
+                  addToCart(step, TestData.Categories.MONITORS, TestData.Products.APPLE_MONITOR))
+          // Step 7 & 8: Validate all items and the total price in cart
+          .step(
+              "Validate cart",
+              List.of(SESSION, "cart.phone", "cart.laptop", "cart.monitor"),
+              CART_TOTAL,
+              step -> {
+                WebDriver session = step.driverWithSession(SESSION);
+                new HeaderComponent(session).clickCart();
+                CartPage cart = new CartPage(session);
+                cart.waitForCartPageToLoad();
+                for (String key : List.of("cart.phone", "cart.laptop", "cart.monitor")) {
+                  String product = step.get(key, String.class);
+                  Assert.assertTrue(cart.isProductInCart(product), product + " should be in cart");
+                }
+                TestLogger.assertion("All 3 products validated in cart");
 
-      // Step 2: Sign up new user
-      TestLogger.testStep("Step 2: Sign up new user");
-      signUpNewUser(TestData.User.USERNAME, TestData.User.PASSWORD);
-      TestLogger.assertion("Sign up completed - User: " + TestData.User.USERNAME);
+                int cartItemCount = cart.getCartItemCount();
+                Assert.assertEquals(cartItemCount, 3, "Cart should contain 3 items");
+                TestLogger.assertion("Cart item count validated: " + cartItemCount);
 
-      // Step 3: Login with new user
-      TestLogger.testStep("Step 3: Login with new user credentials");
-      loginUser(TestData.User.USERNAME, TestData.User.PASSWORD);
-      TestLogger.assertion("Login attempt completed");
+                double totalPrice = cart.getTotalPrice();
+                Assert.assertTrue(totalPrice > 0, "Total price should be greater than 0");
+                TestLogger.assertion("Total price in cart: $" + totalPrice);
+                return totalPrice;
+              })
+          // Step 9 & 10: Place order and complete checkout
+          .step(
+              "Place order and complete checkout",
+              List.of(SESSION, CART_TOTAL),
+              RECEIPT,
+              step -> {
+                WebDriver session = step.driverWithSession(SESSION);
+                new HeaderComponent(session).clickCart();
+                CartPage cart = new CartPage(session);
+                cart.waitForCartPageToLoad();
+                Assert.assertTrue(
+                    cart.isPlaceOrderButtonVisible(), "Place Order button should be visible");
+                cart.clickPlaceOrderButton();
+                TestLogger.assertion("Place Order button clicked");
 
-      // Step 4: Validate login success
-      TestLogger.testStep("Step 4: Validate login succeeded and correct user is logged in");
-      Assert.assertTrue(headerComponent.isUserLoggedIn(), "User should be logged in");
-      String loggedInUser = headerComponent.getLoggedInUsername();
-      Assert.assertTrue(
-          loggedInUser.contains(TestData.User.USERNAME),
-          "Logged in user should match: " + TestData.User.USERNAME);
-      TestLogger.assertion("Login validation successful - User: " + loggedInUser);
-
-      // Step 5 & 6: Add products to cart from different categories
-      TestLogger.testStep("Step 5 & 6: Add products from different categories to cart");
-
-      // Add Samsung Galaxy s7 from Phones
-      addProductToCartFromCategory(TestData.Categories.PHONES, TestData.Products.SAMSUNG);
-      TestLogger.assertion("Samsung Galaxy s7 added to cart");
-
-      // Add MacBook Air from Laptops
-      addProductToCartFromCategory(TestData.Categories.LAPTOPS, TestData.Products.MACBOOK);
-      TestLogger.assertion("MacBook Air added to cart");
-
-      // Add Apple Monitor 24 from Monitors
-      addProductToCartFromCategory(TestData.Categories.MONITORS, TestData.Products.APPLE_MONITOR);
-      TestLogger.assertion("Apple Monitor 24 added to cart");
-
-      // Step 7: Navigate to cart and validate items
-      TestLogger.testStep("Step 7: Navigate to cart and validate all items");
-      headerComponent.clickCart();
-      cartPage.waitForCartPageToLoad();
-
-      // Verify all products are in cart
-      Assert.assertTrue(
-          cartPage.isProductInCart(TestData.Products.SAMSUNG),
-          "Samsung Galaxy s7 should be in cart");
-      Assert.assertTrue(
-          cartPage.isProductInCart(TestData.Products.MACBOOK), "MacBook Air should be in cart");
-      Assert.assertTrue(
-          cartPage.isProductInCart(TestData.Products.APPLE_MONITOR),
-          "Apple Monitor 24 should be in cart");
-      TestLogger.assertion("All 3 products validated in cart");
-
-      // Verify cart item count
-      int cartItemCount = cartPage.getCartItemCount();
-      Assert.assertEquals(cartItemCount, 3, "Cart should contain 3 items");
-      TestLogger.assertion("Cart item count validated: " + cartItemCount);
-
-      // Step 8: Validate total price
-      TestLogger.testStep("Step 8: Validate total price calculation");
-      double totalPrice = cartPage.getTotalPrice();
-      Assert.assertTrue(totalPrice > 0, "Total price should be greater than 0");
-      TestLogger.assertion("Total price in cart: $" + totalPrice);
-
-      // Step 9: Place order
-      TestLogger.testStep("Step 9: Place order");
-      Assert.assertTrue(
-          cartPage.isPlaceOrderButtonVisible(), "Place Order button should be visible");
-      cartPage.clickPlaceOrderButton();
-      TestLogger.assertion("Place Order button clicked");
-
-      // Step 10: Complete checkout
-      TestLogger.testStep("Step 10: Complete checkout with order details");
-      String checkoutTotal =
-          checkoutPage.completePurchase(
-              TestData.Order.NAME,
-              TestData.Order.COUNTRY,
-              TestData.Order.CITY,
-              TestData.Order.CARD_NUMBER,
-              TestData.Order.MONTH,
-              TestData.Order.YEAR);
-
-      // Verify purchase success
-      Assert.assertTrue(
-          checkoutTotal.contains("Thank you") || checkoutTotal.contains("purchase"),
-          "Purchase confirmation message should be displayed");
-      TestLogger.assertion("Purchase completed successfully: " + checkoutTotal);
-
-      // Step 10.1: Close purchase confirmation modal
-      checkoutPage.clickConfirmButton();
-
-      // Step 11: Validate logout
-      TestLogger.testStep("Step 11: Logout user");
-      logoutUser();
-
-      // Verify logout
-      Assert.assertTrue(
-          headerComponent.isLoginVisible(), "Login button should be visible after logout");
-      TestLogger.assertion("Logout validation successful");
+                CheckoutPage checkout = new CheckoutPage(session);
+                String confirmation =
+                    checkout.completePurchase(
+                        TestData.Order.NAME,
+                        TestData.Order.COUNTRY,
+                        TestData.Order.CITY,
+                        TestData.Order.CARD_NUMBER,
+                        TestData.Order.MONTH,
+                        TestData.Order.YEAR);
+                Assert.assertTrue(
+                    confirmation.contains("Thank you") || confirmation.contains("purchase"),
+                    "Purchase confirmation message should be displayed");
+                TestLogger.assertion("Purchase completed successfully: " + confirmation);
+                checkout.clickConfirmButton();
+                return confirmation;
+              })
+          // Step 11: Logout user
+          .step(
+              "Logout user",
+              List.of(SESSION, RECEIPT),
+              null,
+              step -> {
+                HeaderComponent header = new HeaderComponent(step.driverWithSession(SESSION));
+                header.clickLogout();
+                Assert.assertTrue(
+                    header.isLoginVisible(), "Login button should be visible after logout");
+                TestLogger.assertion("Logout validation successful");
+                return null;
+              })
+          .run(driver);
 
       TestLogger.info("===== TEST PASSED: Complete DemoBlaze scenario executed successfully =====");
 
@@ -143,4 +230,84 @@ public class DemoBlazeTest extends BaseTest {
       TestLogger.testEnd("testCompleteDemoBlazeScenario");
     }
   }
+
+  /**
+   * Logged-in cart: a user can fill and review a cart. Signing up is not under test here, so the
+   * user comes from the pre-provisioned account pool instead of the sign-up UI.
+   */
+  @Test(priority = 3, description = "Logged-in user can add a product to the cart")
+  public void testLoggedInUserCart() {
+    TestLogger.testStart("testLoggedInUserCart");
+    try {
+      navigateToHomePage();
+      AccountPool.Account account = loginWithPooledAccount();
+      Assert.assertTrue(headerComponent.isUserLoggedIn(), "User should be logged in");
+      Assert.assertTrue(
+          headerComponent.getLoggedInUsername().contains(account.getUsername()),
+          "Logged in user should match: " + account.getUsername());
+      TestLogger.assertion("Pooled account logged in - User: %s", account.getUsername());
+
+      addProductToCartFromCategory(TestData.Categories.PHONES, TestData.Products.SAMSUNG);
+      headerComponent.clickCart();
+      cartPage.waitForCartPageToLoad();
+      Assert.assertTrue(
+          cartPage.isProductInCart(TestData.Products.SAMSUNG),
+          TestData.Products.SAMSUNG + " should be in cart");
+      TestLogger.assertion("%s in cart of pooled account", TestData.Products.SAMSUNG);
+      logoutUser();
+    } finally {
+      TestLogger.testEnd("testLoggedInUserCart");
+    }
+  }
+
+  /**
+   * Catalog listing: every category lists its products with a price, read page by page from the
+   * product grid.
+   */
+  @Test(priority = 4, description = "Category listings show every product with a price")
+  public void testCategoryListingsShowPrices() {
+    TestLogger.testStart("testCategoryListingsShowPrices");
+    try {
+      navigateToHomePage();
+      Map<String, String> expected =
+          Map.of(
+              TestData.Categories.PHONES, TestData.Products.SAMSUNG,
+              TestData.Categories.LAPTOPS, TestData.Products.MACBOOK,
+              TestData.Categories.MONITORS, TestData.Products.APPLE_MONITOR);
+      for (Map.Entry<String, String> category : expected.entrySet()) {
+        homePage.navigateToCategory(category.getKey());
+        List<ProductCard> products = categoryPage.products().collect(Collectors.toList());
+        Assert.assertTrue(
+            products.stream().anyMatch(card -> card.getName().equals(category.getValue())),
+            category.getKey() + " should list " + category.getValue());
+        Assert.assertTrue(
+            products.stream().allMatch(ProductCard::hasPrice),
+            category.getKey() + " should show a price on every product: " + products);
+        TestLogger.assertion("%s lists %d priced products", category.getKey(), products.size());
+      }
+    } finally {
+      TestLogger.testEnd("testCategoryListingsShowPrices");
+    }
+  }
+
+  /**
+   * Reports page loads of the scenario that exceeded their budgets, as a failure of its own rather
+   * than of the functional steps.
+   */
+  @Test(
+      priority = 2,
+      dependsOnMethods = "testCompleteDemoBlazeScenario",
+      alwaysRun = true,
+      description = "Page loads stay within performance budgets")
+  public void testPageLoadsWithinBudgets() {
+    PerformanceMonitor.assertWithinBudgets(driver);
+    TestLogger.assertion("Page loads within performance budgets");
+  }
+
+  /** Adds a product on a session carrying the logged-in state; the product is the step output. */
+  private String addToCart(Scenario.Context step, String categoryName, String productName) {
+    addProductToCartFromCategory(step.driverWithSession(SESSION), categoryName, productName);
+    TestLogger.assertion("%s added to cart", productName);
+    return productName;
+  }
 }
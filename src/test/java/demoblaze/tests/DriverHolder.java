@@ -0,0 +1,13 @@
+package demoblaze.tests;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * DriverHolder - Implemented by test classes so listeners can reach the driver of the test running
+ * on the current thread, e.g. to capture failure artifacts before the driver is released.
+ */
+public interface DriverHolder {
+
+  /** The driver of the test running on the calling thread, or null if it has none. */
+  WebDriver getDriver();
+}
@@ -0,0 +1,172 @@
+package demoblaze.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * ScenarioTest - Unit tests for scheduling scenario steps by their inputs, and for resuming a
+ * failed scenario. Steps do not touch the driver, so no extra sessions are opened.
+ */
+public class ScenarioTest {
+
+  private WebDriver driver;
+  private final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+  @BeforeClass
+  public void createDriver() {
+    driver = new HtmlUnitDriver();
+  }
+
+  @AfterClass(alwaysRun = true)
+  public void quitDriver() {
+    driver.quit();
+  }
+
+  @Test(description = "Steps run after the steps producing their inputs, whatever the order added")
+  public void testStepsRunAfterTheirInputs() {
+    ran.clear();
+    Map<String, Object> outputs =
+        Scenario.named("ordering")
+            .step("d", List.of("b", "c"), "d", step -> record("d", step.get("b", String.class)))
+            .step("c", List.of("a"), "c", step -> record("c", "c"))
+            .step("b", List.of("a"), "b", step -> record("b", step.get("a", String.class) + "b"))
+            .step("a", List.of(), "a", step -> record("a", "a"))
+            .run(driver);
+
+    Assert.assertEquals(ran.get(0), "a");
+    Assert.assertEquals(ran.get(3), "d");
+    Assert.assertEquals(ran.size(), 4);
+    Assert.assertEquals(outputs.get("d"), "ab");
+  }
+
+  @Test(description = "Steps whose inputs depend on each other are reported as a cycle")
+  public void testCycleIsRejected() {
+    ran.clear();
+    Scenario scenario =
+        Scenario.named("cycle")
+            .step("start", List.of(), "start", step -> record("start", "start"))
+            .step("x", List.of("start", "y"), "x", step -> record("x", "x"))
+            .step("y", List.of("x"), "y", step -> record("y", "y"));
+
+    IllegalStateException error =
+        Assert.expectThrows(IllegalStateException.class, () -> scenario.run(driver));
+    Assert.assertTrue(error.getMessage().contains("cycle"), error.getMessage());
+    Assert.assertEquals(ran, List.of("start"));
+  }
+
+  @Test(description = "An input that no step produces is rejected before anything runs")
+  public void testMissingInputIsRejected() {
+    ran.clear();
+    Scenario scenario =
+        Scenario.named("missing").step("x", List.of("nowhere"), "x", step -> record("x", "x"));
+
+    Assert.expectThrows(IllegalArgumentException.class, () -> scenario.run(driver));
+    Assert.assertTrue(ran.isEmpty());
+  }
+
+  @Test(description = "A failing step fails the scenario and its dependents do not run")
+  public void testFailurePropagates() {
+    ran.clear();
+    AssertionError failure = new AssertionError("cart is empty");
+    Scenario scenario =
+        Scenario.named("failure")
+            .step(
+                "a",
+                List.of(),
+                "a",
+                step -> {
+                  throw failure;
+                })
+            .step("b", List.of("a"), "b", step -> record("b", "b"));
+
+    Assert.assertSame(
+        Assert.expectThrows(AssertionError.class, () -> scenario.run(driver)), failure);
+    Assert.assertTrue(ran.isEmpty());
+  }
+
+  @Test(description = "Running a failed scenario again skips the steps that completed")
+  public void testRerunResumesAfterCompletedSteps() {
+    ran.clear();
+    boolean[] broken = {true};
+    Scenario scenario =
+        Scenario.named("rerun")
+            .step("a", List.of(), "a", step -> record("a", "a"))
+            .step(
+                "b",
+                List.of("a"),
+                "b",
+                step -> {
+                  Assert.assertFalse(broken[0], "b is broken");
+                  return record("b", "b");
+                });
+
+    Assert.expectThrows(AssertionError.class, () -> scenario.run(driver));
+    broken[0] = false;
+    scenario.run(driver);
+
+    Assert.assertEquals(ran, List.of("a", "b"));
+  }
+
+  @Test(description = "A transient failure resumes the scenario within the same run")
+  public void testTransientFailureResumesWithinRun() {
+    ran.clear();
+    int[] failures = {1};
+    Scenario.named("transient")
+        .step("a", List.of(), "a", step -> record("a", "a"))
+        .step(
+            "b",
+            List.of("a"),
+            "b",
+            step -> {
+              if (failures[0]-- > 0) {
+                throw new StaleElementReferenceException("re-rendered");
+              }
+              return record("b", "b");
+            })
+        .run(driver);
+
+    Assert.assertEquals(ran, List.of("a", "b"));
+  }
+
+  @Test(description = "Steps without a checkpoint run again when a step still to run needs them")
+  public void testStepsWithoutCheckpointRunAgainWhenNeeded() {
+    ran.clear();
+    int[] failures = {1};
+    Scenario.named("without-checkpoint")
+        .step("login", List.of(), "login", step -> record("login", "login"))
+        .stepWithoutCheckpoint("empty", List.of("login"), "empty", step -> record("empty", "e"))
+        .stepWithoutCheckpoint("add", List.of("empty"), "add", step -> record("add", "a"))
+        .step(
+            "validate",
+            List.of("add"),
+            "validate",
+            step -> {
+              if (failures[0]-- > 0) {
+                throw new StaleElementReferenceException("re-rendered");
+              }
+              return record("validate", "v");
+            })
+        .step("report", List.of("login"), "report", step -> record("report", "r"))
+        .run(driver);
+
+    Assert.assertEquals(Collections.frequency(ran, "login"), 1);
+    Assert.assertEquals(Collections.frequency(ran, "report"), 1);
+    Assert.assertEquals(Collections.frequency(ran, "empty"), 2);
+    Assert.assertEquals(Collections.frequency(ran, "add"), 2);
+    Assert.assertEquals(ran.get(ran.size() - 1), "validate");
+  }
+
+  private String record(String stepName, String output) {
+    ran.add(stepName);
+    return output;
+  }
+}
@@ -0,0 +1,93 @@
+package demoblaze.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import org.htmlunit.BrowserVersion;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * SessionSnapshotTest - Round trip of a session snapshot between two HtmlUnit drivers, against a
+ * local HTTP server standing in for the application origin.
+ */
+public class SessionSnapshotTest {
+
+  private static final String SNAPSHOT = "session-snapshot-test";
+  private static final String READ_STORAGE_SCRIPT =
+      "function dump(s) { var o = {};"
+          + "  for (var i = 0; i < s.length; i++) { o[s.key(i)] = s.getItem(s.key(i)); }"
+          + "  return o; }"
+          + "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+
+  private HttpServer server;
+  private String origin;
+
+  @BeforeClass
+  public void startServer() throws Exception {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          byte[] body = "<html><body>fixture</body></html>".getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().set("Content-Type", "text/html");
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.start();
+    origin = "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @AfterClass(alwaysRun = true)
+  public void stopServer() {
+    SessionSnapshot.invalidate(SNAPSHOT);
+    server.stop(0);
+  }
+
+  @Test(description = "Restoring a snapshot reproduces its cookies, storage and page")
+  public void testCaptureRestoreRoundTrip() {
+    WebDriver source = new HtmlUnitDriver(BrowserVersion.CHROME, true);
+    WebDriver target = new HtmlUnitDriver(BrowserVersion.CHROME, true);
+    try {
+      source.get(origin + "/cart.html");
+      source.manage().addCookie(new Cookie("tokenp_", "secret"));
+      ((JavascriptExecutor) source)
+          .executeScript(
+              "localStorage.setItem('cart', '3 items'); localStorage.setItem('user', 'jdoe');"
+                  + "sessionStorage.setItem('step', 'checkout');");
+      Object captured = ((JavascriptExecutor) source).executeScript(READ_STORAGE_SCRIPT);
+
+      SessionSnapshot snapshot = SessionSnapshot.capture(source, SNAPSHOT, Duration.ofMinutes(1));
+      target.get(origin + "/other.html");
+      ((JavascriptExecutor) target).executeScript("localStorage.setItem('stale', 'x');");
+      target.manage().addCookie(new Cookie("stale", "x"));
+      snapshot.restore(target);
+
+      Assert.assertEquals(
+          ((JavascriptExecutor) target).executeScript(READ_STORAGE_SCRIPT), captured);
+      Assert.assertEquals(
+          captured,
+          Map.of(
+              "local", Map.of("cart", "3 items", "user", "jdoe"),
+              "session", Map.of("step", "checkout")));
+      Assert.assertEquals(target.manage().getCookieNamed("tokenp_").getValue(), "secret");
+      Assert.assertNull(target.manage().getCookieNamed("stale"));
+      Assert.assertEquals(target.getCurrentUrl(), origin + "/cart.html");
+    } finally {
+      source.quit();
+      target.quit();
+    }
+  }
+}